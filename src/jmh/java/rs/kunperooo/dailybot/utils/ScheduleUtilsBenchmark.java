@@ -0,0 +1,100 @@
+package rs.kunperooo.dailybot.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rs.kunperooo.dailybot.entity.Frequency;
+import rs.kunperooo.dailybot.service.ScheduleEngine;
+import rs.kunperooo.dailybot.service.dto.ScheduleDto;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the next execution calculation. Run through the benchmark profile, which also attaches the gc
+ * profiler, so allocation per operation is reported next to the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleUtilsBenchmark {
+
+    private static final Instant NOW = ZonedDateTime.of(2025, 11, 10, 9, 30, 0, 0, ZoneOffset.UTC).toInstant();
+
+    @Param({"WEEKLY", "BI_WEEKLY", "MONTHLY"})
+    private Frequency frequency;
+
+    /**
+     * sparse - a single day, dense - every working day
+     */
+    @Param({"sparse", "dense"})
+    private String days;
+
+    /**
+     * past - started years ago, future - starts years ahead
+     */
+    @Param({"past", "future"})
+    private String start;
+
+    /**
+     * Zones with DST transitions, Lord Howe shifts by half an hour
+     */
+    @Param({"UTC", "America/Santiago", "Australia/Lord_Howe"})
+    private String timezone;
+
+    private ScheduleDto schedule;
+    private ZonedDateTime now;
+    private ScheduleEngine scheduleEngine;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.ofInstant(NOW, ZoneOffset.UTC);
+        schedule = ScheduleDto.builder()
+                .startDate("past".equals(start) ? today.minusYears(3) : today.plusYears(5))
+                .time(LocalTime.of(9, 0))
+                .timezone(timezone)
+                .frequency(frequency)
+                .days("sparse".equals(days)
+                        ? List.of(DayOfWeek.THURSDAY)
+                        : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY))
+                .build();
+        now = NOW.atZone(ZoneOffset.UTC);
+        scheduleEngine = new ScheduleEngine(Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Benchmark
+    public ZonedDateTime calculateNextExecution() {
+        return ScheduleUtils.calculateNextExecution(schedule, now);
+    }
+
+    @Benchmark
+    public ZonedDateTime engineCalculateNextExecution() {
+        return scheduleEngine.calculateNextExecution(schedule);
+    }
+
+    @Benchmark
+    public ZonedDateTime nextTenOccurrences() {
+        return scheduleEngine.occurrences(schedule)
+                .skip(9)
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -3,13 +3,25 @@ package rs.kunperooo.dailybot.config;
 import com.google.gson.Gson;
 import com.slack.api.Slack;
 import com.slack.api.SlackConfig;
-import com.slack.api.app_backend.interactive_components.ActionResponseSender;
+import com.slack.api.util.http.SlackHttpClient;
 import com.slack.api.util.json.GsonFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.GsonHttpMessageConverter;
+import rs.kunperooo.dailybot.service.resilience.SlackResilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @Slf4j
@@ -18,23 +30,76 @@ public class SlackApiConfig {
     @Value("${slack.api.timeout:30000}")
     private int apiTimeout;
 
-    @Value("${slack.api.retry.attempts:3}")
-    private int retryAttempts;
+    /**
+     * Web API endpoint prefix, e.g. a local stand-in server for load tests, empty for Slack itself
+     */
+    @Value("${slack.api.base.url:}")
+    private String baseUrl;
+
+    @Value("${slack.api.async.thread.pool.size:4}")
+    private int asyncThreadPoolSize;
+
+    @Value("${slack.api.async.max.requests:64}")
+    private int asyncMaxRequests;
+
+    @Value("${slack.api.http.connect.timeout:PT5S}")
+    private Duration connectTimeout;
+
+    @Value("${slack.api.http.max.idle.connections:32}")
+    private int maxIdleConnections;
+
+    @Value("${slack.api.http.keep.alive:PT5M}")
+    private Duration keepAlive;
 
     @Bean
-    public Slack slackClient() {
-        log.info("Configuring Slack API client with timeout: {}ms, retry attempts: {}",
-                apiTimeout, retryAttempts);
+    public Slack slackClient(MeterRegistry meterRegistry) {
+        log.info("Configuring Slack API client with timeout: {}ms, connect timeout: {}, async thread pool size: {}, async max requests: {}, " +
+                        "max idle connections: {}, keep alive: {}",
+                apiTimeout, connectTimeout, asyncThreadPoolSize, asyncMaxRequests, maxIdleConnections, keepAlive);
 
         SlackConfig config = new SlackConfig();
         config.setHttpClientReadTimeoutMillis(apiTimeout);
         config.setHttpClientWriteTimeoutMillis(apiTimeout);
-        return Slack.getInstance(config);
+        config.getMethodsConfig().setDefaultThreadPoolSize(asyncThreadPoolSize);
+        if (baseUrl != null && !baseUrl.isBlank()) {
+            log.info("Sending Slack API calls to {}", baseUrl);
+            config.setMethodsEndpointUrlPrefix(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        }
+        return Slack.getInstance(config, slackHttpClient(config, meterRegistry));
     }
 
-    @Bean
-    public ActionResponseSender responseSender(Slack slack) {
-        return new ActionResponseSender(slack);
+    /**
+     * Enqueued calls are all sent to the same host, OkHttp runs only five of them at once by default.
+     * The pool keeps as many idle connections as a fan-out burst opens, so the next burst reuses warm TLS
+     * connections instead of keeping five and handshaking again.
+     */
+    private SlackHttpClient slackHttpClient(SlackConfig config, MeterRegistry meterRegistry) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(asyncMaxRequests);
+        dispatcher.setMaxRequestsPerHost(asyncMaxRequests);
+        ConnectionPool connectionPool = new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        new OkHttpConnectionPoolMetrics(connectionPool, "slack.api.http.pool", Tags.empty(), maxIdleConnections)
+                .bindTo(meterRegistry);
+        OkHttpClient okHttpClient = SlackHttpClient.buildOkHttpClient(config).newBuilder()
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .connectTimeout(connectTimeout)
+                .eventListener(OkHttpMetricsEventListener.builder(meterRegistry, "slack.api.http.requests")
+                        .uriMapper(SlackApiConfig::metricUri)
+                        .build())
+                .build();
+        SlackHttpClient httpClient = new SlackHttpClient(okHttpClient);
+        httpClient.setConfig(config);
+        return httpClient;
+    }
+
+    /**
+     * Web API method paths, response URLs carry secrets and are all reported as one URI
+     */
+    private static String metricUri(Request request) {
+        String path = request.url().encodedPath();
+        int method = path.indexOf("/api/");
+        return method >= 0 ? path.substring(method + 5) : SlackResilience.RESPONSE_URL;
     }
 
     @Bean
@@ -18,17 +18,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import rs.kunperooo.dailybot.controller.dto.CheckInDataRest;
+import rs.kunperooo.dailybot.controller.dto.ScheduleRecomputeStatusRest;
 import rs.kunperooo.dailybot.controller.dto.form.CheckInFormData;
 import rs.kunperooo.dailybot.controller.dto.form.SlackUserRest;
 import rs.kunperooo.dailybot.controller.dto.history.CheckInHistoryRest;
 import rs.kunperooo.dailybot.service.CheckInService;
+import rs.kunperooo.dailybot.service.ScheduleEngine;
+import rs.kunperooo.dailybot.service.ScheduleRecomputeService;
+import rs.kunperooo.dailybot.service.dto.CheckInDataDto;
+import rs.kunperooo.dailybot.service.dto.ScheduleRecomputeStatusDto;
 import rs.kunperooo.dailybot.service.cache.SlackUserCacheService;
 import rs.kunperooo.dailybot.utils.Converter;
 
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static rs.kunperooo.dailybot.utils.Converter.convertToDto;
@@ -44,8 +52,12 @@ import static rs.kunperooo.dailybot.utils.Converter.convertToQuestionListDto;
 @PreAuthorize("hasRole('ADMIN')")
 public class CheckInController {
 
+    private static final int UPCOMING_EXECUTIONS_PREVIEW = 10;
+
     private final CheckInService checkInService;
     private final SlackUserCacheService slackUserCacheService;
+    private final ScheduleEngine scheduleEngine;
+    private final ScheduleRecomputeService scheduleRecomputeService;
 
     @GetMapping
     public String listCheckIns(
@@ -116,13 +128,18 @@ public class CheckInController {
     public String showEditForm(@PathVariable UUID uuid, Model model) {
         log.debug("Showing edit form for check-in ID: {}", uuid);
 
-        CheckInDataRest checkInForm = Converter.convertToRest(checkInService.findByUuid(uuid))
+        Optional<CheckInDataDto> checkIn = checkInService.findByUuid(uuid);
+        CheckInDataRest checkInForm = Converter.convertToRest(checkIn)
                 .orElseThrow(() -> new RuntimeException("Check-in not found with ID: " + uuid));
         List<SlackUserRest> activeUsers = new ArrayList<>(convertToListRest(new ArrayList<>(slackUserCacheService.getAllUsers().values())));
+        List<ZonedDateTime> upcomingExecutions = scheduleEngine.occurrences(checkIn.get().getSchedule())
+                .limit(UPCOMING_EXECUTIONS_PREVIEW)
+                .toList();
 
         model.addAttribute("checkInForm", checkInForm);
         model.addAttribute("isEdit", true);
         model.addAttribute("activeUsers", activeUsers);
+        model.addAttribute("upcomingExecutions", upcomingExecutions);
 
         return "checkin-form";
     }
@@ -213,6 +230,22 @@ public class CheckInController {
         return "redirect:/checkin";
     }
 
+    @PostMapping("/schedules/recompute")
+    public String recomputeSchedules(@AuthenticationPrincipal OidcUser principal, RedirectAttributes redirectAttributes) {
+        log.info("Schedule recompute requested by: {}", principal.getSubject());
+
+        ScheduleRecomputeStatusDto status = scheduleRecomputeService.start();
+        redirectAttributes.addFlashAttribute("successMessage",
+                "Recomputing next execution of all schedules, started at " + status.getStartedAt());
+        return "redirect:/checkin";
+    }
+
+    @GetMapping("/schedules/recompute")
+    @ResponseBody
+    public ScheduleRecomputeStatusRest getRecomputeStatus() {
+        return Converter.convertToRest(scheduleRecomputeService.getStatus());
+    }
+
     /**
      * Helper method to create a Page from a List (for admin view)
      */
@@ -18,6 +18,7 @@ import rs.kunperooo.dailybot.service.CheckInInteractivityService;
 import rs.kunperooo.dailybot.service.dto.AnswerDto;
 import rs.kunperooo.dailybot.service.dto.SaveAnswersDto;
 import rs.kunperooo.dailybot.utils.ActionId;
+import rs.kunperooo.dailybot.utils.NotificationMessages;
 
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
@@ -59,10 +60,9 @@ public class InteractivityHandlerController {
         List<BlockActionPayload.Action> actions = payload.getActions();
         ActionId actionId = ActionId.safeValueOf(actions.get(0).getActionId());
 
-        if (actionId == ActionId.START_CHECK_IN) {
-            checkInInteractivityService.openCheckInAnswersView(payload.getTriggerId(), payload.getUser().getId(), payload.getResponseUrl(), payload.getMessage().getMetadata().getEventPayload().get("checkInHistoryUuid").toString());
-        } else if (actionId == ActionId.FINISH_CHECK_IN) {
-            checkInInteractivityService.openCheckInAnswersView(payload.getTriggerId(), payload.getUser().getId(), payload.getResponseUrl(), payload.getMessage().getMetadata().getEventPayload().get("checkInHistoryUuid").toString());
+        if (actionId == ActionId.START_CHECK_IN || actionId == ActionId.FINISH_CHECK_IN) {
+            checkInInteractivityService.openCheckInAnswersView(payload.getTriggerId(), payload.getUser().getId(), payload.getResponseUrl(),
+                    NotificationMessages.historyUuid(payload), NotificationMessages.isCoalesced(payload));
         }
     }
 
@@ -90,6 +90,8 @@ public class InteractivityHandlerController {
                 .userId(payload.getUser().getId())
                 .checkInUuid(meta.getHistoryUuid())
                 .responseUrl(meta.getResponseUrl())
+                .checkInHistoryUuid(meta.getCheckInHistoryUuid())
+                .replaceOriginal(!meta.isCoalesced())
                 .answers(answers)
                 .build();
     }
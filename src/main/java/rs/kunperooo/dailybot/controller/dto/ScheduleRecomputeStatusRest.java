@@ -0,0 +1,24 @@
+package rs.kunperooo.dailybot.controller.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ScheduleRecomputeStatusRest {
+    private boolean running;
+
+    private String startedAt;
+
+    private String finishedAt;
+
+    private long total;
+
+    private long processed;
+
+    private long updated;
+
+    private long failed;
+
+    private String lastError;
+}
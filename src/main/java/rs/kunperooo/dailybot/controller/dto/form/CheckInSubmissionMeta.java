@@ -10,4 +10,9 @@ import java.util.UUID;
 public class CheckInSubmissionMeta {
     private String responseUrl;
     private UUID historyUuid;
+    private UUID checkInHistoryUuid;
+    /**
+     * The answered check-in was one of several in the same message
+     */
+    private boolean coalesced;
 }
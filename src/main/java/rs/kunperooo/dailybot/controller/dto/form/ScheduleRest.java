@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import rs.kunperooo.dailybot.entity.CatchUpPolicy;
 import rs.kunperooo.dailybot.entity.Frequency;
 
 import java.time.DayOfWeek;
@@ -24,4 +25,7 @@ public class ScheduleRest {
     private ZoneId timezone;
     private Frequency frequency;
     private List<DayOfWeek> days;
+    private Integer spreadWindowSeconds;
+    private String recurrenceRule;
+    private CatchUpPolicy catchUpPolicy;
 }
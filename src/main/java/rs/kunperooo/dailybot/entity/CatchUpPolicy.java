@@ -0,0 +1,8 @@
+package rs.kunperooo.dailybot.entity;
+
+/**
+ * What to send for executions missed while the scheduler was not running
+ */
+public enum CatchUpPolicy {
+    SKIP, LATEST, ALL
+}
@@ -21,6 +21,8 @@ import lombok.ToString;
 import lombok.experimental.Accessors;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import rs.kunperooo.dailybot.utils.RecurrenceRule;
+import rs.kunperooo.dailybot.utils.RecurrenceRuleConverter;
 import rs.kunperooo.dailybot.utils.WeekDayListJsonConverter;
 
 import java.time.DayOfWeek;
@@ -66,6 +68,23 @@ public class CheckInNotificationScheduleEntity {
     @Column(name = "next_execution")
     private ZonedDateTime nextExecution;
 
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private ZonedDateTime leaseExpiresAt;
+
+    @Column(name = "spread_window_seconds")
+    private Integer spreadWindowSeconds;
+
+    @Column(name = "recurrence_rule", length = 500)
+    @Convert(converter = RecurrenceRuleConverter.class)
+    private RecurrenceRule recurrenceRule;
+
+    @Column(name = "catch_up_policy", length = 10)
+    @Enumerated(value = EnumType.STRING)
+    private CatchUpPolicy catchUpPolicy;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
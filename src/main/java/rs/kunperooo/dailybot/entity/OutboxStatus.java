@@ -0,0 +1,5 @@
+package rs.kunperooo.dailybot.entity;
+
+public enum OutboxStatus {
+    PENDING, DELIVERED, FAILED
+}
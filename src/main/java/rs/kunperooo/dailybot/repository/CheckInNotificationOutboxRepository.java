@@ -0,0 +1,52 @@
+package rs.kunperooo.dailybot.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import rs.kunperooo.dailybot.entity.CheckInNotificationOutboxEntity;
+import rs.kunperooo.dailybot.entity.OutboxStatus;
+import rs.kunperooo.dailybot.repository.projection.DispatchCandidateProjection;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CheckInNotificationOutboxRepository extends JpaRepository<CheckInNotificationOutboxEntity, Long> {
+
+    @Query("select o.id as id, o.checkInHistory.checkIn.owner as owner, o.nextAttemptAt as dueAt from CheckInNotificationOutboxEntity o " +
+            "where o.status = :status and o.nextAttemptAt <= :now and (o.leaseOwner is null or o.leaseExpiresAt < :now) " +
+            "order by o.nextAttemptAt")
+    List<DispatchCandidateProjection> findClaimable(@Param("status") OutboxStatus status, @Param("now") ZonedDateTime now, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update CheckInNotificationOutboxEntity o set o.leaseOwner = :leaseOwner, o.leaseExpiresAt = :leaseExpiresAt " +
+            "where o.id in :ids and (o.leaseOwner is null or o.leaseExpiresAt < :now)")
+    int claim(@Param("ids") List<Long> ids, @Param("leaseOwner") String leaseOwner,
+              @Param("leaseExpiresAt") ZonedDateTime leaseExpiresAt, @Param("now") ZonedDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update CheckInNotificationOutboxEntity o set o.leaseOwner = :leaseOwner, o.leaseExpiresAt = :leaseExpiresAt " +
+            "where o.memberId in :memberIds and o.status = :status and o.nextAttemptAt <= :now " +
+            "and (o.leaseOwner is null or o.leaseExpiresAt < :now)")
+    int claimByMembers(@Param("memberIds") Collection<String> memberIds, @Param("status") OutboxStatus status,
+                       @Param("leaseOwner") String leaseOwner, @Param("leaseExpiresAt") ZonedDateTime leaseExpiresAt,
+                       @Param("now") ZonedDateTime now);
+
+    @Query("select o from CheckInNotificationOutboxEntity o join fetch o.checkInHistory h join fetch h.checkIn " +
+            "where o.leaseOwner = :leaseOwner and o.status = :status and o.nextAttemptAt <= :now " +
+            "order by o.nextAttemptAt, o.id")
+    List<CheckInNotificationOutboxEntity> findClaimed(@Param("leaseOwner") String leaseOwner, @Param("status") OutboxStatus status,
+                                                      @Param("now") ZonedDateTime now);
+
+    @Modifying
+    @Query("update CheckInNotificationOutboxEntity o set o.status = :status, o.deliveredAt = :deliveredAt, " +
+            "o.attempts = o.attempts + 1, o.lastError = null, o.leaseOwner = null, o.leaseExpiresAt = null " +
+            "where o.id in :ids")
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("status") OutboxStatus status,
+                      @Param("deliveredAt") LocalDateTime deliveredAt);
+}
@@ -1,9 +1,12 @@
 package rs.kunperooo.dailybot.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import rs.kunperooo.dailybot.entity.CheckInNotificationScheduleEntity;
+import rs.kunperooo.dailybot.repository.projection.NextExecutionProjection;
 
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -18,5 +21,25 @@ public interface CheckInNotificationScheduleRepository extends JpaRepository<Che
 
     void deleteByCheckInId(Long checkInId);
 
-    List<CheckInNotificationScheduleEntity> findByNextExecutionIsBefore(ZonedDateTime nextExecutionBefore, Pageable pageable);
+    long countByNextExecutionIsBefore(ZonedDateTime nextExecutionBefore);
+
+    /**
+     * Claims leases only on rows that are still free or expired, so concurrent nodes never claim the same row
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update CheckInNotificationScheduleEntity s set s.leaseOwner = :leaseOwner, s.leaseExpiresAt = :leaseExpiresAt " +
+            "where s.id in :ids and (s.leaseOwner is null or s.leaseExpiresAt < :now)")
+    int claim(@Param("ids") List<Long> ids, @Param("leaseOwner") String leaseOwner,
+              @Param("leaseExpiresAt") ZonedDateTime leaseExpiresAt, @Param("now") ZonedDateTime now);
+
+    /**
+     * Earliest moment any schedule can be claimed, a leased schedule only once its lease expires
+     */
+    @Query("select min(case when s.leaseExpiresAt > s.nextExecution then s.leaseExpiresAt else s.nextExecution end) " +
+            "from CheckInNotificationScheduleEntity s where s.nextExecution is not null")
+    Optional<ZonedDateTime> findEarliestClaimableAt();
+
+    @Query("select s.checkIn.uuid as checkInUuid, s.nextExecution as nextExecution " +
+            "from CheckInNotificationScheduleEntity s where s.nextExecution is not null")
+    List<NextExecutionProjection> findAllNextExecutions();
 }
@@ -0,0 +1,11 @@
+package rs.kunperooo.dailybot.repository.projection;
+
+import java.time.ZonedDateTime;
+
+public interface DispatchCandidateProjection {
+    Long getId();
+
+    String getOwner();
+
+    ZonedDateTime getDueAt();
+}
@@ -0,0 +1,10 @@
+package rs.kunperooo.dailybot.repository.projection;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+public interface NextExecutionProjection {
+    UUID getCheckInUuid();
+
+    ZonedDateTime getNextExecution();
+}
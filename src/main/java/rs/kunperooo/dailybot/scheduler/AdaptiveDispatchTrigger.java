@@ -0,0 +1,137 @@
+package rs.kunperooo.dailybot.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rs.kunperooo.dailybot.service.CheckInService;
+import rs.kunperooo.dailybot.service.ScheduleEngine;
+import rs.kunperooo.dailybot.service.event.CheckInScheduleChangedEvent;
+import rs.kunperooo.dailybot.service.event.SchedulesRecomputedEvent;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Replaces per-minute polling with a loop that sleeps exactly until the earliest schedule can be claimed.
+ * Only the earliest time is read from the database, so it keeps nothing in memory. A schedule change on this
+ * node wakes the loop early when it moves a check-in before the planned wake-up, and the loop never sleeps
+ * longer than the safety scan interval, which picks up changes made by other nodes.
+ * Enabled with check.in.adaptive.enabled=true, polling is disabled with check.in.cron=-
+ */
+@Component
+@ConditionalOnProperty(name = "check.in.adaptive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class AdaptiveDispatchTrigger {
+    private final CheckInService checkInService;
+    private final CheckInScheduler checkInScheduler;
+    private final ScheduleEngine scheduleEngine;
+
+    @Value("${check.in.adaptive.safety.scan.interval:PT5M}")
+    private Duration safetyScanInterval;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private ZonedDateTime wakeUpAt;
+    private boolean signalled;
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Starting adaptive dispatch trigger with safety scan interval {}", safetyScanInterval);
+        worker = new Thread(this::run, "check-in-adaptive-trigger");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(CheckInScheduleChangedEvent event) {
+        ZonedDateTime nextExecution = event.getNextExecution();
+        lock.lock();
+        try {
+            if (nextExecution != null && (wakeUpAt == null || nextExecution.isBefore(wakeUpAt))) {
+                signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onSchedulesRecomputed(SchedulesRecomputedEvent event) {
+        lock.lock();
+        try {
+            signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signal() {
+        signalled = true;
+        changed.signalAll();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ZonedDateTime now = scheduleEngine.now();
+                ZonedDateTime earliest = checkInService.findEarliestClaimableAt().orElse(null);
+                if (earliest != null && earliest.isBefore(now)) {
+                    checkInScheduler.dispatchDue();
+                    continue;
+                }
+                ZonedDateTime safetyScan = now.plus(safetyScanInterval);
+                await(earliest != null && earliest.isBefore(safetyScan) ? earliest : safetyScan);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Adaptive dispatch failed: {}", e.getMessage(), e);
+                sleepAfterFailure();
+            }
+        }
+    }
+
+    private void await(ZonedDateTime until) throws InterruptedException {
+        lock.lock();
+        try {
+            wakeUpAt = until;
+            long nanos = Duration.between(scheduleEngine.now(), until).toNanos();
+            log.debug("Adaptive dispatch sleeping until {}", until);
+            while (!signalled && nanos > 0) {
+                nanos = changed.awaitNanos(nanos);
+            }
+            signalled = false;
+        } finally {
+            wakeUpAt = null;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keeps a failing database from turning the loop into a busy spin
+     */
+    private void sleepAfterFailure() {
+        try {
+            TimeUnit.SECONDS.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
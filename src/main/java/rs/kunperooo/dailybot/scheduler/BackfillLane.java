@@ -0,0 +1,42 @@
+package rs.kunperooo.dailybot.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paces catch-up deliveries after a downtime. Unlike a blocking rate limiter it hands out future delivery slots,
+ * which become the outbox attempt times, so {@link OutboxDispatcher} sends the backlog at the configured rate
+ * while check-ins that are on time keep flowing. The rate applies per node, a rate of 0 or less turns pacing off.
+ */
+@Component
+@Slf4j
+public class BackfillLane {
+
+    @Value("${check.in.catch.up.rate:2}")
+    private double deliveriesPerSecond;
+
+    private Instant nextSlot = Instant.EPOCH;
+
+    /**
+     * @return delivery time for each of the deliveries, spaced by the lane rate after everything reserved before
+     */
+    public synchronized List<ZonedDateTime> reserve(int deliveries, ZonedDateTime now) {
+        long slotNanos = deliveriesPerSecond > 0 ? (long) (1_000_000_000L / deliveriesPerSecond) : 0;
+        Instant slot = nextSlot.isAfter(now.toInstant()) ? nextSlot : now.toInstant();
+        List<ZonedDateTime> slots = new ArrayList<>(deliveries);
+        for (int i = 0; i < deliveries; i++) {
+            slots.add(ZonedDateTime.ofInstant(slot, ZoneOffset.UTC));
+            slot = slot.plusNanos(slotNanos);
+        }
+        nextSlot = slot;
+        log.debug("Reserved {} backfill deliveries, lane is busy until {}", deliveries, nextSlot);
+        return slots;
+    }
+}
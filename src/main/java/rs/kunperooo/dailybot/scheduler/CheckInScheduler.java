@@ -1,64 +1,160 @@
 package rs.kunperooo.dailybot.scheduler;
 
-import com.slack.api.model.Message;
-import com.slack.api.model.block.Blocks;
-import com.slack.api.model.block.LayoutBlock;
-import com.slack.api.model.block.composition.BlockCompositions;
-import com.slack.api.model.block.element.BlockElements;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Pageable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import rs.kunperooo.dailybot.entity.CatchUpPolicy;
 import rs.kunperooo.dailybot.service.CheckInService;
-import rs.kunperooo.dailybot.service.SlackApiService;
-import rs.kunperooo.dailybot.service.dto.CheckInDataDto;
-import rs.kunperooo.dailybot.service.dto.MemberDto;
-import rs.kunperooo.dailybot.utils.ScheduleUtils;
+import rs.kunperooo.dailybot.service.ScheduleEngine;
+import rs.kunperooo.dailybot.service.dto.DueCheckInDto;
+import rs.kunperooo.dailybot.service.dto.DispatchDto;
 
-import java.time.ZoneOffset;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-
-import static rs.kunperooo.dailybot.utils.ActionId.START_CHECK_IN;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class CheckInScheduler {
     private final CheckInService checkInService;
-    private final SlackApiService slackApiService;
+    private final MeterRegistry meterRegistry;
+    private final ScheduleEngine scheduleEngine;
+    private final BackfillLane backfillLane;
+
+    @Value("${check.in.batch.size:10}")
+    private int batchSize;
+
+    @Value("${check.in.drain.enabled:true}")
+    private boolean drainEnabled;
+
+    @Value("${check.in.drain.time.budget:PT50S}")
+    private Duration drainTimeBudget;
+
+    @Value("${check.in.node.id}")
+    private String nodeId;
+
+    @Value("${check.in.lease.duration:PT5M}")
+    private Duration leaseDuration;
+
+    @Value("${check.in.catch.up.policy:LATEST}")
+    private CatchUpPolicy defaultCatchUpPolicy;
+
+    @Value("${check.in.catch.up.max.occurrences:10}")
+    private int catchUpMaxOccurrences;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private Timer dispatchLag;
+
+    @PostConstruct
+    public void initMetrics() {
+        Gauge.builder("check.in.dispatch.backlog", backlog, AtomicLong::get)
+                .description("Number of check-ins due for dispatch at the last scheduler pass")
+                .register(meterRegistry);
+        dispatchLag = Timer.builder("check.in.dispatch.lag")
+                .description("Delay between the scheduled next execution and the actual dispatch")
+                .register(meterRegistry);
+    }
 
+    /**
+     * Enqueues notifications of due check-ins batch by batch, {@link OutboxDispatcher} delivers them.
+     * In draining mode batches are claimed until nothing due remains or the per-tick time budget
+     * is spent, otherwise a single batch is dispatched.
+     * Every batch is leased to this node, so several replicas split the due check-ins between them
+     * and a lease left behind by a crashed node is claimed again once it expires.
+     */
     @Scheduled(cron = "${check.in.cron}")
     public void schedule() {
-        List<CheckInDataDto> checkIns = checkInService.findByNextExecutionIsBefore(ZonedDateTime.now(ZoneOffset.UTC), Pageable.ofSize(10));
+        dispatchDue();
+    }
+
+    /**
+     * Shared by the cron trigger and {@link NextExecutionTimer}, so passes never overlap within a node.
+     */
+    public synchronized void dispatchDue() {
+        long deadline = System.nanoTime() + drainTimeBudget.toNanos();
+        int dispatched = 0;
+        List<DueCheckInDto> checkIns;
+        do {
+            ZonedDateTime now = scheduleEngine.now();
+            backlog.set(checkInService.countByNextExecutionIsBefore(now));
+            checkIns = checkInService.claimDueCheckIns(now, nodeId, leaseDuration, batchSize);
+
+            List<DispatchDto> dispatches = new ArrayList<>(checkIns.size());
+            for (DueCheckInDto checkIn : checkIns) {
+                recordLag(checkIn, now);
+                ZonedDateTime due = checkIn.getSchedule().getNextExecution();
+                dispatches.add(DispatchDto.builder()
+                        .checkIn(checkIn)
+                        .nextExecution(scheduleEngine.calculateNextExecution(checkIn.getSchedule()))
+                        .catchUpDeliveries(due != null && skippedOccurrences(checkIn, due, now) ? catchUp(checkIn, due, now) : null)
+                        .build());
+            }
+            if (!dispatches.isEmpty()) {
+                checkInService.enqueueDispatches(dispatches, nodeId);
+                dispatched += dispatches.size();
+            }
+        } while (drainEnabled && !checkIns.isEmpty() && System.nanoTime() < deadline);
 
-        for (CheckInDataDto checkIn : checkIns) {
-            sendNotification(checkIn);
-            checkInService.saveNextExecution(checkIn.getUuid(), ScheduleUtils.calculateNextExecution(checkIn.getSchedule()));
+        if (dispatched > 0) {
+            log.info("Dispatched {} check-ins, {} were due at the start of the last batch", dispatched, backlog.get());
         }
     }
 
-    private void sendNotification(CheckInDataDto checkIn) {
-        UUID historyUuid = checkInService.saveHistory(checkIn);
-
-        List<LayoutBlock> blocks = List.of(
-                Blocks.section(section -> section.text(BlockCompositions.markdownText(checkIn.getIntroMessage()))),
-                Blocks.actions(actions -> actions
-                        .elements(List.of(
-                                BlockElements.button(b -> b
-                                        .text(BlockCompositions.plainText("Yes"))
-                                        .actionId(START_CHECK_IN.name())
-                                        .value("start"))
-                        ))
-                )
-        );
-        Message.Metadata metadata = Message.Metadata.builder()
-                .eventType("notify_user_with_check_in")
-                .eventPayload(Map.of("checkInHistoryUuid", historyUuid.toString()))
-                .build();
-        for (MemberDto member : checkIn.getMembers()) {
-            slackApiService.sendChatPostMessage(member.getId(), blocks, metadata);
+    /**
+     * Whether the scheduler was away long enough for the schedule to pass another occurrence after the due one,
+     * e.g. during a downtime. A check-in that is merely late, e.g. behind a peak backlog, is dispatched as usual.
+     */
+    private boolean skippedOccurrences(DueCheckInDto checkIn, ZonedDateTime due, ZonedDateTime now) {
+        ZonedDateTime following = scheduleEngine.calculateNextExecution(checkIn.getSchedule(), due.toInstant().plusNanos(1));
+        return following != null && !following.isAfter(now);
+    }
+
+    /**
+     * Handles a check-in whose schedule skipped occurrences according to its {@link CatchUpPolicy}.
+     * Missed notifications go through {@link BackfillLane}, so a restart does not send the whole backlog at once.
+     *
+     * @return member deliveries per notification to send
+     */
+    private List<List<ZonedDateTime>> catchUp(DueCheckInDto checkIn, ZonedDateTime due, ZonedDateTime now) {
+        CatchUpPolicy policy = checkIn.getSchedule().getCatchUpPolicy() != null
+                ? checkIn.getSchedule().getCatchUpPolicy() : defaultCatchUpPolicy;
+        int notifications = switch (policy) {
+            case SKIP -> 0;
+            case LATEST -> 1;
+            case ALL -> countMissedOccurrences(checkIn, due, now);
+        };
+
+        List<List<ZonedDateTime>> deliveries = new ArrayList<>(notifications);
+        for (int i = 0; i < notifications; i++) {
+            deliveries.add(backfillLane.reserve(checkIn.getMemberIds().size(), now));
+        }
+        log.info("Check-in {} missed its execution at {}, {} policy enqueues {} notifications",
+                checkIn.getUuid(), due, policy, notifications);
+        return deliveries;
+    }
+
+    private int countMissedOccurrences(DueCheckInDto checkIn, ZonedDateTime due, ZonedDateTime now) {
+        long missed = scheduleEngine.occurrences(checkIn.getSchedule(), due.toInstant().minusSeconds(1))
+                .takeWhile(occurrence -> !occurrence.isAfter(now))
+                .limit(catchUpMaxOccurrences)
+                .count();
+        // The due execution counts even when the schedule was changed in the meantime
+        return (int) Math.max(1, missed);
+    }
+
+    private void recordLag(DueCheckInDto checkIn, ZonedDateTime now) {
+        ZonedDateTime nextExecution = checkIn.getSchedule().getNextExecution();
+        if (nextExecution != null) {
+            dispatchLag.record(Duration.between(nextExecution, now));
         }
     }
 }
@@ -0,0 +1,133 @@
+package rs.kunperooo.dailybot.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rs.kunperooo.dailybot.service.CheckInService;
+import rs.kunperooo.dailybot.service.event.CheckInScheduleChangedEvent;
+import rs.kunperooo.dailybot.service.event.SchedulesRecomputedEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory replacement for per-minute polling. Next executions are loaded once at startup,
+ * kept in sync through {@link CheckInScheduleChangedEvent} and fire the dispatch at their exact second.
+ * After every pass the timer is re-armed at the earliest claimable time in the database, so check-ins the pass
+ * left behind, e.g. beyond the batch or time budget or under an expired lease of another node, still fire.
+ * Enable with check.in.timer.enabled=true and disable polling with check.in.cron=-
+ */
+@Component
+@ConditionalOnProperty(name = "check.in.timer.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class NextExecutionTimer {
+    /**
+     * Key of the entry re-arming the timer, it does not belong to any check-in
+     */
+    private static final UUID REARM = new UUID(0, 0);
+    private static final Duration RETRY_AFTER_FAILURE = Duration.ofSeconds(1);
+
+    private final CheckInService checkInService;
+    private final CheckInScheduler checkInScheduler;
+
+    private final DelayQueue<Entry> queue = new DelayQueue<>();
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Map<UUID, ZonedDateTime> nextExecutions = checkInService.findAllNextExecutions();
+        nextExecutions.forEach(this::reschedule);
+        log.info("Next execution timer loaded with {} scheduled check-ins", nextExecutions.size());
+
+        worker = new Thread(this::run, "check-in-timer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(CheckInScheduleChangedEvent event) {
+        reschedule(event.getCheckInUuid(), event.getNextExecution());
+    }
+
+    @EventListener
+    public void onSchedulesRecomputed(SchedulesRecomputedEvent event) {
+        entries.clear();
+        queue.clear();
+        Map<UUID, ZonedDateTime> nextExecutions = checkInService.findAllNextExecutions();
+        nextExecutions.forEach(this::reschedule);
+        log.info("Next execution timer reloaded with {} scheduled check-ins", nextExecutions.size());
+    }
+
+    private void reschedule(UUID checkInUuid, ZonedDateTime nextExecution) {
+        if (nextExecution == null) {
+            Entry removed = entries.remove(checkInUuid);
+            if (removed != null) {
+                queue.remove(removed);
+            }
+            return;
+        }
+        Entry entry = new Entry(checkInUuid, nextExecution.toInstant());
+        Entry previous = entries.put(checkInUuid, entry);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.put(entry);
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Entry due = queue.take();
+                // collapse everything due in the same instant into a single dispatch pass
+                while (due != null) {
+                    entries.remove(due.checkInUuid(), due);
+                    due = queue.poll();
+                }
+                checkInScheduler.dispatchDue();
+                rearm();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Timer triggered dispatch failed: {}", e.getMessage(), e);
+                reschedule(REARM, ZonedDateTime.now().plus(RETRY_AFTER_FAILURE));
+            }
+        }
+    }
+
+    private void rearm() {
+        checkInService.findEarliestClaimableAt().ifPresent(earliest -> reschedule(REARM, earliest));
+    }
+
+    private record Entry(UUID checkInUuid, Instant fireAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAt.toEpochMilli() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return fireAt.compareTo(((Entry) other).fireAt);
+        }
+    }
+}
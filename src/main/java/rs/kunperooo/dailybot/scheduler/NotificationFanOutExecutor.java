@@ -0,0 +1,128 @@
+package rs.kunperooo.dailybot.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rs.kunperooo.dailybot.service.dto.DeliveryResultDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Sends check-in notifications to members concurrently.
+ * Deliveries are non-blocking calls, at most max concurrency of them are in flight at once, while the
+ * deliveries of a single check-in are additionally limited to a per check-in number of permits.
+ */
+@Component
+@Slf4j
+public class NotificationFanOutExecutor {
+
+    @Value("${check.in.fan.out.max.concurrency:16}")
+    private int maxConcurrency;
+
+    @Value("${check.in.fan.out.per.check.in.concurrency:4}")
+    private int perCheckInConcurrency;
+
+    @PostConstruct
+    public void init() {
+        log.info("Configuring notification fan-out with max concurrency: {}, per check-in concurrency: {}",
+                maxConcurrency, perCheckInConcurrency);
+    }
+
+    /**
+     * Delivers every notification and waits until all deliveries are finished.
+     * A failed delivery is recorded in its result and does not stop the remaining ones.
+     * Notifications of a check-in that already uses all of its permits are deferred,
+     * so they do not hold back notifications of other check-ins.
+     *
+     * @param recipient resolves the member a notification is addressed to
+     * @param checkIn   resolves the check-in a notification belongs to
+     * @param delivery  starts the delivery of a notification, completed once it was sent
+     * @return delivery results in the same order as notifications
+     */
+    public <T> List<DeliveryResultDto> fanOut(List<T> notifications, Function<T, String> recipient, Function<T, ?> checkIn,
+                                              Function<T, CompletableFuture<?>> delivery) {
+        List<CompletableFuture<DeliveryResultDto>> futures = new ArrayList<>(Collections.nCopies(notifications.size(), null));
+        Map<Object, Semaphore> permits = new HashMap<>();
+        Semaphore inFlight = new Semaphore(Math.max(1, maxConcurrency));
+        Semaphore completions = new Semaphore(0);
+        Deque<Integer> pending = new ArrayDeque<>(notifications.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            pending.add(i);
+        }
+
+        while (!pending.isEmpty()) {
+            int submitted = 0;
+            for (int n = pending.size(); n > 0; n--) {
+                int index = pending.poll();
+                T notification = notifications.get(index);
+                Semaphore checkInPermits = permits.computeIfAbsent(checkIn.apply(notification),
+                        k -> new Semaphore(Math.max(1, perCheckInConcurrency)));
+                if (!checkInPermits.tryAcquire()) {
+                    pending.add(index);
+                    continue;
+                }
+                if (!inFlight.tryAcquire()) {
+                    checkInPermits.release();
+                    pending.add(index);
+                    continue;
+                }
+                futures.set(index, submit(recipient.apply(notification), notification, delivery, () -> {
+                    checkInPermits.release();
+                    inFlight.release();
+                    completions.release();
+                }));
+                submitted++;
+            }
+            if (submitted == 0) {
+                completions.acquireUninterruptibly();
+            }
+        }
+
+        List<DeliveryResultDto> results = futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+        long failed = results.stream().filter(r -> !r.isDelivered()).count();
+        log.info("Delivered {} of {} notifications", results.size() - failed, results.size());
+        return results;
+    }
+
+    private <T> CompletableFuture<DeliveryResultDto> submit(String memberId, T notification,
+                                                            Function<T, CompletableFuture<?>> delivery, Runnable onComplete) {
+        CompletableFuture<?> sent;
+        try {
+            sent = delivery.apply(notification);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent
+                .handle((r, e) -> e == null ? delivered(memberId) : failed(memberId, e instanceof CompletionException ? e.getCause() : e))
+                .whenComplete((r, e) -> onComplete.run());
+    }
+
+    private static DeliveryResultDto delivered(String memberId) {
+        return DeliveryResultDto.builder()
+                .memberId(memberId)
+                .delivered(true)
+                .build();
+    }
+
+    private static DeliveryResultDto failed(String memberId, Throwable e) {
+        log.warn("Failed to deliver notification to member {}: {}", memberId, e.getMessage());
+        return DeliveryResultDto.builder()
+                .memberId(memberId)
+                .delivered(false)
+                .error(e.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package rs.kunperooo.dailybot.scheduler;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rs.kunperooo.dailybot.service.AsyncSlackApiService;
+import rs.kunperooo.dailybot.service.NotificationOutboxService;
+import rs.kunperooo.dailybot.service.SlackApiService;
+import rs.kunperooo.dailybot.service.dto.DeliveryResultDto;
+import rs.kunperooo.dailybot.service.dto.OutboxMessageDto;
+import rs.kunperooo.dailybot.utils.NotificationMessages;
+import rs.kunperooo.dailybot.utils.PreparedChatMessage;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Drains the notification outbox. Pending rows are leased in batches, delivered through
+ * {@link NotificationFanOutExecutor} and marked delivered, or rescheduled with exponential
+ * backoff until the maximum number of attempts is reached. Due rows of the same member are leased
+ * together and sent as a single message.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+    private final NotificationOutboxService outboxService;
+    private final SlackApiService slackApiService;
+    private final AsyncSlackApiService asyncSlackApiService;
+    private final NotificationFanOutExecutor fanOutExecutor;
+    private final Clock clock;
+
+    @Value("${check.in.node.id}")
+    private String nodeId;
+
+    @Value("${check.in.outbox.batch.size:100}")
+    private int batchSize;
+
+    @Value("${check.in.outbox.lease.duration:PT2M}")
+    private Duration leaseDuration;
+
+    @Value("${check.in.outbox.max.attempts:5}")
+    private int maxAttempts;
+
+    @Value("${check.in.outbox.retry.backoff:PT30S}")
+    private Duration retryBackoff;
+
+    @Value("${check.in.delivery.ledger.retention:P7D}")
+    private Duration ledgerRetention;
+
+    /**
+     * Intro messages rendered once per history, a history with many members spans several batches
+     */
+    private final Cache<UUID, PreparedChatMessage> preparedMessages = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
+    @Scheduled(fixedDelayString = "${check.in.outbox.poll.interval:PT1S}")
+    public void dispatch() {
+        List<OutboxMessageDto> messages;
+        do {
+            messages = outboxService.claimPending(now(), nodeId, leaseDuration, batchSize);
+            if (!messages.isEmpty()) {
+                deliver(messages);
+            }
+        } while (messages.size() >= batchSize);
+    }
+
+    /**
+     * Notifications of the same member are sent as one message with a start button per check-in,
+     * the outcome of that message applies to all of them.
+     * Notifications whose idempotency key is in the delivery ledger were already sent, e.g. before a crash
+     * or by a node whose lease expired, and are only marked delivered.
+     */
+    private void deliver(List<OutboxMessageDto> messages) {
+        Set<UUID> alreadyDelivered = outboxService.findDelivered(messages.stream().map(OutboxMessageDto::getIdempotencyKey).toList());
+        List<Long> delivered = new ArrayList<>();
+        Map<String, List<OutboxMessageDto>> byMember = new LinkedHashMap<>();
+        for (OutboxMessageDto message : messages) {
+            if (alreadyDelivered.contains(message.getIdempotencyKey())) {
+                delivered.add(message.getId());
+                continue;
+            }
+            byMember.computeIfAbsent(message.getMemberId(), m -> new ArrayList<>()).add(message);
+        }
+        if (!alreadyDelivered.isEmpty()) {
+            log.info("Skipping {} notifications that were already delivered", alreadyDelivered.size());
+        }
+        List<List<OutboxMessageDto>> groups = new ArrayList<>(byMember.values());
+
+        List<PreparedChatMessage> prepared = new ArrayList<>(groups.size());
+        for (List<OutboxMessageDto> group : groups) {
+            prepared.add(group.size() == 1 ? prepare(group.get(0)) : slackApiService.prepareChatPostMessage(
+                    NotificationMessages.buildCoalescedBlocks(group), NotificationMessages.buildCoalescedMetadata(group)));
+        }
+
+        List<Integer> indexes = IntStream.range(0, groups.size()).boxed().toList();
+        List<DeliveryResultDto> results = fanOutExecutor.fanOut(indexes, i -> groups.get(i).get(0).getMemberId(),
+                i -> groups.get(i).get(0).getCheckInUuid(),
+                i -> asyncSlackApiService.sendChatPostMessage(groups.get(i).get(0).getMemberId(), prepared.get(i))
+                        .thenRun(() -> recordDelivered(groups.get(i))));
+        if (groups.size() < messages.size() - delivered.size()) {
+            log.debug("Coalesced {} notifications into {} messages", messages.size() - delivered.size(), groups.size());
+        }
+
+        for (int i = 0; i < groups.size(); i++) {
+            DeliveryResultDto result = results.get(i);
+            for (OutboxMessageDto message : groups.get(i)) {
+                if (result.isDelivered()) {
+                    delivered.add(message.getId());
+                } else if (message.getAttempts() + 1 >= maxAttempts) {
+                    log.error("Giving up on check-in {} notification to member {} after {} attempts: {}",
+                            message.getCheckInUuid(), message.getMemberId(), maxAttempts, result.getError());
+                    outboxService.markExhausted(message.getId(), result.getError());
+                } else {
+                    Duration backoff = retryBackoff.multipliedBy(1L << Math.min(message.getAttempts(), 16));
+                    outboxService.markFailed(message.getId(), result.getError(), now().plus(backoff));
+                }
+            }
+        }
+        outboxService.markDelivered(delivered);
+    }
+
+    /**
+     * A failure here must not turn a sent message into a failed delivery, the outbox row is still marked below
+     */
+    private void recordDelivered(List<OutboxMessageDto> group) {
+        try {
+            outboxService.recordDelivered(group.stream().map(OutboxMessageDto::getIdempotencyKey).toList(),
+                    now());
+        } catch (RuntimeException e) {
+            log.warn("Failed to record delivery to member {}: {}", group.get(0).getMemberId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${check.in.delivery.ledger.purge.interval:PT1H}")
+    public void purgeDeliveryLedger() {
+        int purged = outboxService.purgeDeliveryLedger(now().minus(ledgerRetention));
+        if (purged > 0) {
+            log.info("Purged {} delivery ledger entries older than {}", purged, ledgerRetention);
+        }
+    }
+
+    private ZonedDateTime now() {
+        return ZonedDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+    }
+
+    private PreparedChatMessage prepare(OutboxMessageDto message) {
+        return preparedMessages.asMap().computeIfAbsent(message.getHistoryUuid(), h -> slackApiService.prepareChatPostMessage(
+                NotificationMessages.buildBlocks(message.getIntroMessage(), h), NotificationMessages.buildMetadata(h)));
+    }
+}
@@ -0,0 +1,237 @@
+package rs.kunperooo.dailybot.service;
+
+import com.google.gson.Gson;
+import com.slack.api.Slack;
+import com.slack.api.app_backend.interactive_components.response.ActionResponse;
+import com.slack.api.methods.AsyncMethodsClient;
+import com.slack.api.methods.Methods;
+import com.slack.api.methods.SlackApiException;
+import com.slack.api.methods.request.users.UsersInfoRequest;
+import com.slack.api.methods.request.users.UsersListRequest;
+import com.slack.api.methods.request.views.ViewsOpenRequest;
+import com.slack.api.methods.response.chat.ChatPostMessageResponse;
+import com.slack.api.model.User;
+import com.slack.api.model.view.View;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import rs.kunperooo.dailybot.service.dto.SlackUserDto;
+import rs.kunperooo.dailybot.service.resilience.SlackResilience;
+import rs.kunperooo.dailybot.utils.NotificationMessages;
+import rs.kunperooo.dailybot.utils.PreparedChatMessage;
+import rs.kunperooo.dailybot.utils.SlackUserConverter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking Slack calls of the notification and interactivity paths, {@link SlackApiService} keeps the blocking
+ * user lookups. Web API methods go through {@code slack.methodsAsync}, prepared messages and action responses are
+ * enqueued on the OkHttp dispatcher, so no caller thread waits for a round-trip and many calls can be in flight
+ * at once. Calls go through {@link SlackResilience}, futures complete exceptionally with
+ * {@link SlackApiException} or {@link IOException} like the Slack client.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AsyncSlackApiService {
+
+    @Value("${slack.bot.token:}")
+    private String slackBotToken;
+
+    @Value("${slack.app.users.read.page.size:100}")
+    private int usersReadPageSize;
+
+    private final Slack slack;
+    private final SlackMethodsClients methodsClients;
+    private final Gson gson;
+    private final SlackResilience resilience;
+
+    /**
+     * Retrieves active users only (excluding deleted and bot users)
+     */
+    public CompletableFuture<List<SlackUserDto>> getActiveUsers() {
+        log.info("Retrieving active users from Slack workspace");
+
+        return getAllUsers(null, new ArrayList<>()).thenApply(allUsers -> {
+            List<User> activeUsers = allUsers.stream()
+                    .filter(user -> !user.isDeleted())
+                    .filter(user -> !user.isBot())
+                    .filter(user -> !user.isRestricted())
+                    .filter(user -> !user.isUltraRestricted())
+                    .toList();
+            log.info("Retrieved {} active users from {} total users", activeUsers.size(), allUsers.size());
+            return SlackUserConverter.convert(activeUsers);
+        });
+    }
+
+    /**
+     * Retrieves user by id
+     */
+    public CompletableFuture<SlackUserDto> getUser(String slackUserId) {
+        return resilience.submit(Methods.USERS_INFO, null, () -> methods().usersInfo(UsersInfoRequest.builder().user(slackUserId).build()))
+                .thenApply(response -> {
+                    if (!response.isOk()) {
+                        log.error("Failed to retrieve user from Slack: {}", response.getError());
+                        throw new RuntimeException("Failed to retrieve user: " + response.getError());
+                    }
+                    return SlackUserConverter.convert(response.getUser());
+                })
+                .whenComplete((user, e) -> logFailure("retrieving user", e));
+    }
+
+    /**
+     * Open view in conversation
+     */
+    public CompletableFuture<Void> openCheckInAnswersView(String triggerId, View view) {
+        return resilience.submit(Methods.VIEWS_OPEN, null, () -> methods().viewsOpen(ViewsOpenRequest.builder()
+                        .triggerId(triggerId)
+                        .view(view)
+                        .build()))
+                .thenAccept(response -> {
+                    if (!response.isOk()) {
+                        log.error("Failed to open view: {}", response.getError());
+                        throw new RuntimeException("Failed to open view: " + response.getError());
+                    }
+                    log.info(response.toString());
+                })
+                .whenComplete((v, e) -> logFailure("opening view", e));
+    }
+
+    /**
+     * Send webhook back to conversation
+     */
+    public CompletableFuture<Void> sendActionResponse(String userId, String responseUrl, String outroMessage,
+                                                      UUID checkInHistoryUuid, boolean replaceOriginal) {
+        log.info("Sending ephemeral message to user {}", userId);
+
+        ActionResponse actionResponse = ActionResponse.builder()
+                .replaceOriginal(replaceOriginal)
+                .blocks(NotificationMessages.buildOutroBlocks(outroMessage, checkInHistoryUuid))
+                .build();
+        Request request = new Request.Builder()
+                .url(responseUrl)
+                .post(RequestBody.create(gson.toJson(actionResponse), PreparedChatMessage.JSON))
+                .build();
+        return resilience.submit(SlackResilience.RESPONSE_URL, null, () -> execute(request))
+                .<Void>thenApply(body -> null)
+                .whenComplete((v, e) -> logFailure("sending action response", e));
+    }
+
+    /**
+     * Send a prepared message to conversation, the pre-encoded JSON body is posted as is
+     */
+    public CompletableFuture<Void> sendChatPostMessage(String channelId, PreparedChatMessage message) {
+        Request request = new Request.Builder()
+                .url(slack.getConfig().getMethodsEndpointUrlPrefix() + Methods.CHAT_POST_MESSAGE)
+                .header("Authorization", "Bearer " + slackBotToken)
+                .post(message.requestBody(channelId))
+                .build();
+        return resilience.submit(Methods.CHAT_POST_MESSAGE, channelId, () -> execute(request))
+                .thenAccept(body -> {
+                    ChatPostMessageResponse response = gson.fromJson(body, ChatPostMessageResponse.class);
+                    if (!response.isOk()) {
+                        throw new RuntimeException("Failed to send interactive message: " + response.getError());
+                    }
+                })
+                .whenComplete((v, e) -> logFailure("sending chat post message", e));
+    }
+
+    private CompletableFuture<List<User>> getAllUsers(String cursor, List<User> allUsers) {
+        if (slackBotToken == null || slackBotToken.trim().isEmpty()) {
+            log.warn("Slack bot token is not configured");
+            return CompletableFuture.failedFuture(new IllegalStateException("Slack bot token is not configured"));
+        }
+
+        UsersListRequest.UsersListRequestBuilder request = UsersListRequest.builder()
+                .limit(usersReadPageSize)
+                .includeLocale(true);
+        if (cursor != null && !cursor.isEmpty()) {
+            request.cursor(cursor);
+        }
+        return resilience.submit(Methods.USERS_LIST, null, () -> methods().usersList(request.build())).thenCompose(response -> {
+            if (!response.isOk()) {
+                log.error("Failed to retrieve users from Slack: {}", response.getError());
+                throw new RuntimeException("Failed to retrieve users: " + response.getError());
+            }
+            if (response.getMembers() != null) {
+                allUsers.addAll(response.getMembers());
+            }
+            String nextCursor = response.getResponseMetadata() != null
+                    ? response.getResponseMetadata().getNextCursor()
+                    : null;
+            if (nextCursor != null && !nextCursor.isEmpty()) {
+                return getAllUsers(nextCursor, allUsers);
+            }
+            log.info("Successfully retrieved {} users from Slack workspace", allUsers.size());
+            return CompletableFuture.completedFuture(allUsers);
+        });
+    }
+
+    private AsyncMethodsClient methods() {
+        return methodsClients.methodsAsync(slackBotToken);
+    }
+
+    /**
+     * @return response body of a successful call, failed with {@link SlackApiException} on an HTTP error.
+     * Cancelling the future, e.g. after a timeout, cancels the HTTP call.
+     */
+    private CompletableFuture<String> execute(Request request) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Call httpCall = slack.getHttpClient().getOkHttpClient().newCall(request);
+        future.whenComplete((body, e) -> {
+            if (e != null) {
+                httpCall.cancel();
+            }
+        });
+        httpCall.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response httpResponse) {
+                try (httpResponse) {
+                    String body = httpResponse.body() != null ? httpResponse.body().string() : "";
+                    slack.getHttpClient().runHttpResponseListeners(httpResponse, body);
+                    if (!httpResponse.isSuccessful()) {
+                        throw new SlackApiException(slack.getConfig(), httpResponse, body);
+                    }
+                    future.complete(body);
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Logs every failure, callers like {@link CheckInInteractivityService} do not wait for the outcome
+     */
+    private static void logFailure(String action, Throwable e) {
+        if (e == null) {
+            return;
+        }
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof SlackApiException) {
+            log.error("Slack API error while {}: {}", action, cause.getMessage(), cause);
+        } else if (cause instanceof IOException) {
+            log.error("IO error while {}: {}", action, cause.getMessage(), cause);
+        } else {
+            log.error("Error while {}: {}", action, cause.getMessage(), cause);
+        }
+    }
+}
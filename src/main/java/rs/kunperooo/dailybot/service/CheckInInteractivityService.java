@@ -30,11 +30,16 @@ import static rs.kunperooo.dailybot.service.SlackApiService.PLAIN_TEXT_TYPE;
 @RequiredArgsConstructor
 @Slf4j
 public class CheckInInteractivityService {
-    private final SlackApiService slackApiService;
+    private final AsyncSlackApiService asyncSlackApiService;
     private final CheckInService checkInService;
     private final ObjectMapper objectMapper;
 
-    public void openCheckInAnswersView(String triggerId, String userId, String responseUrl, String checkInHistoryUuid) {
+    /**
+     * The view is opened without waiting for Slack, so the interaction is acknowledged right away
+     *
+     * @param coalesced the check-in was started from a message holding several check-ins
+     */
+    public void openCheckInAnswersView(String triggerId, String userId, String responseUrl, String checkInHistoryUuid, boolean coalesced) {
         log.info("Sending check in submit form to Slack");
 
         Optional<CheckInHistoryEntity> history = checkInService.findHistoryByUuid(UUID.fromString(checkInHistoryUuid));
@@ -42,19 +47,25 @@ public class CheckInInteractivityService {
             String privateMetadata = objectMapper.writeValueAsString(CheckInSubmissionMeta.builder()
                     .responseUrl(responseUrl)
                     .historyUuid(history.get().getCheckIn().getUuid())
+                    .checkInHistoryUuid(history.get().getUuid())
+                    .coalesced(coalesced)
                     .build());
-            slackApiService.openCheckInAnswersView(triggerId, buildCheckInView(userId, privateMetadata, history.get()));
+            asyncSlackApiService.openCheckInAnswersView(triggerId, buildCheckInView(userId, privateMetadata, history.get()));
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Answers are saved before the submission is acknowledged, the outro is sent back in the background
+     */
     public void saveSubmittedForm(SaveAnswersDto dto) {
         log.info("Saving submitted check in form");
         Optional<CheckInDataDto> checkIn = checkInService.findByUuid(dto.getCheckInUuid());
         checkInService.saveOrUpdateAnswers(dto);
 
-        slackApiService.sendActionResponse(dto.getUserId(), dto.getResponseUrl(), checkIn.get().getOutroMessage());
+        asyncSlackApiService.sendActionResponse(dto.getUserId(), dto.getResponseUrl(), checkIn.get().getOutroMessage(),
+                dto.getCheckInHistoryUuid(), dto.isReplaceOriginal());
     }
 
     private static View buildCheckInView(String userId, String metaData, CheckInHistoryEntity history) {
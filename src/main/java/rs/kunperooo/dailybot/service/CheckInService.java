@@ -3,6 +3,8 @@ package rs.kunperooo.dailybot.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import rs.kunperooo.dailybot.service.dto.CheckInDataDto;
+import rs.kunperooo.dailybot.service.dto.DispatchDto;
+import rs.kunperooo.dailybot.service.dto.DueCheckInDto;
 import rs.kunperooo.dailybot.service.dto.MemberDto;
 import rs.kunperooo.dailybot.service.dto.QuestionDto;
 import rs.kunperooo.dailybot.entity.CheckInHistoryEntity;
@@ -10,8 +12,10 @@ import rs.kunperooo.dailybot.service.dto.SaveAnswersDto;
 import rs.kunperooo.dailybot.service.dto.ScheduleDto;
 import rs.kunperooo.dailybot.service.dto.history.CheckInHistoryDto;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,11 +38,15 @@ public interface CheckInService {
 
     Optional<CheckInHistoryEntity> findHistoryByUuid(UUID uuid);
 
-    List<CheckInDataDto> findByNextExecutionIsBefore(ZonedDateTime nextExecutionBefore, Pageable pageable);
+    List<DueCheckInDto> claimDueCheckIns(ZonedDateTime now, String leaseOwner, Duration leaseDuration, int batchSize);
 
-    UUID saveHistory(CheckInDataDto checkIn);
+    long countByNextExecutionIsBefore(ZonedDateTime nextExecutionBefore);
 
-    void saveNextExecution(UUID checkInUuid, ZonedDateTime nextExecution);
+    Map<UUID, ZonedDateTime> findAllNextExecutions();
+
+    Optional<ZonedDateTime> findEarliestClaimableAt();
+
+    List<UUID> enqueueDispatches(List<DispatchDto> dispatches, String leaseOwner);
 
     List<CheckInHistoryDto> getHistory(UUID checkInUuid);
 }
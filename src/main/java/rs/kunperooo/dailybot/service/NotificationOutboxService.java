@@ -0,0 +1,29 @@
+package rs.kunperooo.dailybot.service;
+
+import rs.kunperooo.dailybot.service.dto.OutboxMessageDto;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public interface NotificationOutboxService {
+    List<OutboxMessageDto> claimPending(ZonedDateTime now, String leaseOwner, Duration leaseDuration, int batchSize);
+
+    void markDelivered(Collection<Long> ids);
+
+    void markFailed(Long id, String error, ZonedDateTime nextAttemptAt);
+
+    void markExhausted(Long id, String error);
+
+    /**
+     * @return the keys among the given ones that were already delivered
+     */
+    Set<UUID> findDelivered(Collection<UUID> idempotencyKeys);
+
+    void recordDelivered(Collection<UUID> idempotencyKeys, ZonedDateTime deliveredAt);
+
+    int purgeDeliveryLedger(ZonedDateTime deliveredBefore);
+}
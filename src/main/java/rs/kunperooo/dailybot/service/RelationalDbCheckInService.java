@@ -3,45 +3,68 @@ package rs.kunperooo.dailybot.service;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import rs.kunperooo.dailybot.entity.CatchUpPolicy;
 import rs.kunperooo.dailybot.entity.CheckInAnswerEntity;
 import rs.kunperooo.dailybot.entity.CheckInEntity;
 import rs.kunperooo.dailybot.entity.CheckInHistoryEntity;
+import rs.kunperooo.dailybot.entity.CheckInNotificationOutboxEntity;
 import rs.kunperooo.dailybot.entity.CheckInNotificationScheduleEntity;
 import rs.kunperooo.dailybot.entity.CheckInQuestionEntity;
 import rs.kunperooo.dailybot.entity.CheckInQuestionInHistoryEntity;
+import rs.kunperooo.dailybot.entity.Frequency;
+import rs.kunperooo.dailybot.entity.Member;
+import rs.kunperooo.dailybot.entity.OutboxStatus;
 import rs.kunperooo.dailybot.repository.CheckInAnswerRepository;
 import rs.kunperooo.dailybot.repository.CheckInHistoryRepository;
+import rs.kunperooo.dailybot.repository.CheckInNotificationOutboxRepository;
 import rs.kunperooo.dailybot.repository.CheckInNotificationScheduleRepository;
 import rs.kunperooo.dailybot.repository.CheckInQuestionInHistoryRepository;
 import rs.kunperooo.dailybot.repository.CheckInQuestionRepository;
 import rs.kunperooo.dailybot.repository.CheckInRepository;
+import rs.kunperooo.dailybot.repository.projection.NextExecutionProjection;
 import rs.kunperooo.dailybot.service.cache.SlackUserCacheService;
 import rs.kunperooo.dailybot.service.dto.CheckInDataDto;
+import rs.kunperooo.dailybot.service.dto.DispatchDto;
+import rs.kunperooo.dailybot.service.dto.DueCheckInDto;
 import rs.kunperooo.dailybot.service.dto.MemberDto;
 import rs.kunperooo.dailybot.service.dto.QuestionDto;
 import rs.kunperooo.dailybot.service.dto.SaveAnswersDto;
 import rs.kunperooo.dailybot.service.dto.ScheduleDto;
 import rs.kunperooo.dailybot.service.dto.SlackUserDto;
 import rs.kunperooo.dailybot.service.dto.history.CheckInHistoryDto;
+import rs.kunperooo.dailybot.service.event.CheckInScheduleChangedEvent;
 import rs.kunperooo.dailybot.utils.Converter;
+import rs.kunperooo.dailybot.utils.DispatchPlanner;
+import rs.kunperooo.dailybot.utils.FairDispatchQueue;
+import rs.kunperooo.dailybot.utils.MemberListJsonConverter;
+import rs.kunperooo.dailybot.utils.WeekDayListJsonConverter;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static rs.kunperooo.dailybot.utils.Converter.convertToDtoList;
 import static rs.kunperooo.dailybot.utils.Converter.convertToMemberEntityList;
 import static rs.kunperooo.dailybot.utils.Converter.convertToHistoryDtoListFromQuestions;
-import static rs.kunperooo.dailybot.utils.ScheduleUtils.calculateNextExecution;
 
 @Service
 @RequiredArgsConstructor
@@ -49,6 +72,47 @@ import static rs.kunperooo.dailybot.utils.ScheduleUtils.calculateNextExecution;
 @Transactional
 public class RelationalDbCheckInService implements CheckInService {
 
+    /**
+     * Claim candidates are read several batches ahead, so owners behind a busy owner still get a share
+     */
+    private static final int CLAIM_LOOKAHEAD = 4;
+
+    /**
+     * Candidates are ranked within their owner and read rank by rank, the most late schedule of every owner
+     * first, so an owner with more due schedules than the lookahead cannot fill the candidates alone.
+     * An owner contributes at most one batch.
+     */
+    private static final String SELECT_CLAIMABLE = """
+            SELECT id, owner, next_execution
+            FROM (SELECT s.id, c.owner, s.next_execution,
+                         ROW_NUMBER() OVER (PARTITION BY c.owner ORDER BY s.next_execution) AS owner_rank
+                  FROM check_in_notification_schedule s
+                  JOIN check_in c ON c.id = s.check_in_id
+                  WHERE s.next_execution < ? AND (s.lease_owner IS NULL OR s.lease_expires_at < ?)) candidates
+            WHERE owner_rank <= ?
+            ORDER BY owner_rank, next_execution
+            LIMIT ?""";
+
+    private static final String UPDATE_NEXT_EXECUTION = """
+            UPDATE check_in_notification_schedule
+            SET next_execution = ?, lease_owner = NULL, lease_expires_at = NULL, updated_at = ?
+            WHERE id = ? AND lease_owner = ?""";
+
+    private static final String SELECT_CLAIMED = """
+            SELECT s.id AS schedule_id, s.start_date, s.time, s.timezone, s.frequency, s.week_days, s.next_execution,
+                   s.spread_window_seconds, s.recurrence_rule, s.catch_up_policy,
+                   c.id AS check_in_id, c.uuid, c.intro_message, c.members
+            FROM check_in_notification_schedule s
+            JOIN check_in c ON c.id = s.check_in_id
+            WHERE s.lease_owner = ? AND s.next_execution < ?
+            ORDER BY s.next_execution""";
+
+    private static final String SELECT_ACTIVE_QUESTIONS = """
+            SELECT check_in_id, id
+            FROM check_in_question
+            WHERE is_active = TRUE AND check_in_id IN (%s)
+            ORDER BY check_in_id, order_number""";
+
     private final CheckInRepository checkInRepository;
     private final CheckInQuestionRepository checkInQuestionRepository;
     private final CheckInNotificationScheduleRepository scheduleRepository;
@@ -56,7 +120,20 @@ public class RelationalDbCheckInService implements CheckInService {
     private final CheckInHistoryRepository checkInHistoryRepository;
     private final CheckInQuestionInHistoryRepository checkInQuestionInHistoryRepository;
     private final CheckInNotificationScheduleRepository checkInNotificationScheduleRepository;
+    private final CheckInNotificationOutboxRepository checkInNotificationOutboxRepository;
     private final SlackUserCacheService slackUserCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduleEngine scheduleEngine;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MemberListJsonConverter memberConverter = new MemberListJsonConverter();
+    private final WeekDayListJsonConverter weekDayConverter = new WeekDayListJsonConverter();
+
+    @Value("${check.in.spread.window:PT0S}")
+    private Duration defaultSpreadWindow;
+
+    @Value("#{${check.in.fairness.weights:{:}}}")
+    private Map<String, Integer> ownerWeights;
 
     public void createCheckIn(String owner, String name, String introMessage, String outroMessage, @NonNull List<QuestionDto> questions, @NonNull List<MemberDto> members, ScheduleDto schedule) {
         log.info("Creating new check-in for owner: {} with name: {} and {} questions",
@@ -155,10 +232,14 @@ public class RelationalDbCheckInService implements CheckInService {
                 .setTimezone(schedule.getTimezone())
                 .setFrequency(schedule.getFrequency())
                 .setWeekDays(schedule.getDays() != null ? new ArrayList<>(schedule.getDays()) : new ArrayList<>())
-                .setNextExecution(calculateNextExecution(schedule))
+                .setNextExecution(scheduleEngine.calculateNextExecution(schedule))
+                .setSpreadWindowSeconds(schedule.getSpreadWindowSeconds())
+                .setRecurrenceRule(schedule.getRecurrenceRule())
+                .setCatchUpPolicy(schedule.getCatchUpPolicy())
                 .setUpdatedAt(LocalDateTime.now());
         checkIn.setNotificationSchedule(scheduleEntity);
         checkInRepository.save(checkIn);
+        eventPublisher.publishEvent(new CheckInScheduleChangedEvent(uuid, scheduleEntity.getNextExecution()));
     }
 
     public void deleteCheckIn(UUID uuid, String owner) {
@@ -169,6 +250,7 @@ public class RelationalDbCheckInService implements CheckInService {
         }
 
         checkInRepository.deleteByUuid(uuid);
+        eventPublisher.publishEvent(new CheckInScheduleChangedEvent(uuid, null));
         log.info("Check-in deleted successfully");
     }
 
@@ -197,24 +279,104 @@ public class RelationalDbCheckInService implements CheckInService {
         return checkInHistoryRepository.findByUuid(uuid);
     }
 
+    /**
+     * Claims due check-ins for this node and reads them with two queries per batch, schedules joined with their
+     * check-ins and the active question ids of all of them, independent of the batch size.
+     * Concurrent nodes read the same candidates, a node that lost all of them to another node reads the next
+     * candidates, which no longer include the leased ones, so it only comes back empty when nothing is claimable.
+     */
+    @Override
+    public List<DueCheckInDto> claimDueCheckIns(ZonedDateTime now, String leaseOwner, Duration leaseDuration, int batchSize) {
+        List<Long> claimableIds;
+        int claimed = 0;
+        do {
+            List<ClaimCandidate> candidates = jdbcTemplate.query(SELECT_CLAIMABLE, (rs, rowNum) -> new ClaimCandidate(
+                    rs.getLong("id"),
+                    rs.getString("owner"),
+                    rs.getObject("next_execution", OffsetDateTime.class).toZonedDateTime()),
+                    now.toOffsetDateTime(), now.toOffsetDateTime(), batchSize, batchSize * CLAIM_LOOKAHEAD);
+            claimableIds = new FairDispatchQueue<>(ClaimCandidate::owner, ClaimCandidate::dueAt, ownerWeights)
+                    .addAll(candidates)
+                    .poll(batchSize).stream()
+                    .map(ClaimCandidate::id)
+                    .toList();
+            if (!claimableIds.isEmpty()) {
+                claimed = checkInNotificationScheduleRepository.claim(claimableIds, leaseOwner, now.plus(leaseDuration), now);
+                log.debug("Node {} claimed {} of {} due check-ins", leaseOwner, claimed, claimableIds.size());
+            }
+        } while (claimed == 0 && !claimableIds.isEmpty());
+        List<DueCheckInDto> checkIns = jdbcTemplate.query(SELECT_CLAIMED, (rs, rowNum) -> DueCheckInDto.builder()
+                .id(rs.getLong("check_in_id"))
+                .uuid(UUID.fromString(rs.getString("uuid")))
+                .introMessage(rs.getString("intro_message"))
+                .memberIds(memberConverter.convertToEntityAttribute(rs.getString("members")).stream().map(Member::getUsername).toList())
+                .schedule(ScheduleDto.builder()
+                        .id(rs.getLong("schedule_id"))
+                        .startDate(rs.getObject("start_date", LocalDate.class))
+                        .time(rs.getObject("time", LocalTime.class))
+                        .timezone(rs.getString("timezone"))
+                        .frequency(rs.getString("frequency") != null ? Frequency.valueOf(rs.getString("frequency")) : null)
+                        .days(weekDayConverter.convertToEntityAttribute(rs.getString("week_days")))
+                        .nextExecution(rs.getObject("next_execution", OffsetDateTime.class).toZonedDateTime())
+                        .spreadWindowSeconds(rs.getObject("spread_window_seconds", Integer.class))
+                        .recurrenceRule(scheduleEngine.recurrenceRule(rs.getString("recurrence_rule")))
+                        .catchUpPolicy(rs.getString("catch_up_policy") != null ? CatchUpPolicy.valueOf(rs.getString("catch_up_policy")) : null)
+                        .build())
+                .build(), leaseOwner, now.toOffsetDateTime());
+        if (checkIns.isEmpty()) {
+            return checkIns;
+        }
+
+        Map<Long, List<Long>> questionIds = new HashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(checkIns.size(), "?"));
+        jdbcTemplate.query(SELECT_ACTIVE_QUESTIONS.formatted(placeholders), rs -> {
+            questionIds.computeIfAbsent(rs.getLong("check_in_id"), id -> new ArrayList<>()).add(rs.getLong("id"));
+        }, checkIns.stream().map(DueCheckInDto::getId).toArray());
+        for (DueCheckInDto checkIn : checkIns) {
+            checkIn.setQuestionIds(questionIds.getOrDefault(checkIn.getId(), List.of()));
+        }
+        return checkIns;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countByNextExecutionIsBefore(ZonedDateTime nextExecutionBefore) {
+        return checkInNotificationScheduleRepository.countByNextExecutionIsBefore(nextExecutionBefore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, ZonedDateTime> findAllNextExecutions() {
+        return checkInNotificationScheduleRepository.findAllNextExecutions().stream()
+                .collect(Collectors.toMap(NextExecutionProjection::getCheckInUuid, NextExecutionProjection::getNextExecution));
+    }
+
     @Override
-    public List<CheckInDataDto> findByNextExecutionIsBefore(ZonedDateTime nextExecutionBefore, Pageable pageable) {
-        return checkInNotificationScheduleRepository.findByNextExecutionIsBefore(nextExecutionBefore, pageable).stream()
-                .map(n -> Converter.convertToDto(n.getCheckIn(), slackUserCacheService.getUser(n.getCheckIn().getOwner()))).toList();
+    @Transactional(readOnly = true)
+    public Optional<ZonedDateTime> findEarliestClaimableAt() {
+        return checkInNotificationScheduleRepository.findEarliestClaimableAt();
     }
 
-    @NotNull
-    public UUID saveHistory(CheckInDataDto checkIn) {
-        CheckInEntity checkInEntity = checkInRepository.findByUuid(checkIn.getUuid()).get();
+    private UUID saveHistory(DueCheckInDto checkIn) {
+        return saveHistory(checkIn, DispatchPlanner.planDeliveries(checkIn.getUuid(), scheduleEngine.now(),
+                checkIn.getMemberIds().size(), spreadWindow(checkIn.getSchedule())));
+    }
+
+    /**
+     * Works on references only, the check-in and its questions are not loaded again.
+     *
+     * @param deliveries delivery time per member in the same order as the check-in members
+     */
+    private UUID saveHistory(DueCheckInDto checkIn, List<ZonedDateTime> deliveries) {
         UUID historyUuid = UUID.randomUUID();
-        List<CheckInQuestionInHistoryEntity> questionsInHistory = checkInEntity.getCheckInQuestions().stream()
-                .map(q -> CheckInQuestionInHistoryEntity.builder()
+        List<CheckInQuestionInHistoryEntity> questionsInHistory = checkIn.getQuestionIds().stream()
+                .map(id -> CheckInQuestionInHistoryEntity.builder()
                         .uuid(UUID.randomUUID())
-                        .checkInQuestion(q)
+                        .checkInQuestion(checkInQuestionRepository.getReferenceById(id))
                         .build())
                 .toList();
         CheckInHistoryEntity history = CheckInHistoryEntity.builder()
-                .checkIn(checkInEntity)
+                .checkIn(checkInRepository.getReferenceById(checkIn.getId()))
                 .createdAt(LocalDateTime.now())
                 .uuid(historyUuid)
                 .build();
@@ -223,16 +385,57 @@ public class RelationalDbCheckInService implements CheckInService {
             history.addQuestionInHistory(q);
         }
         checkInHistoryRepository.save(history);
+
+        List<String> memberIds = checkIn.getMemberIds();
+        List<CheckInNotificationOutboxEntity> outbox = new ArrayList<>(memberIds.size());
+        for (int i = 0; i < memberIds.size(); i++) {
+            outbox.add(CheckInNotificationOutboxEntity.builder()
+                    .checkInHistory(history)
+                    .memberId(memberIds.get(i))
+                    .status(OutboxStatus.PENDING)
+                    .nextAttemptAt(deliveries.get(i))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        checkInNotificationOutboxRepository.saveAll(outbox);
         return historyUuid;
     }
 
-    @Transactional
+    /**
+     * Advances the schedules of a whole scheduler batch and stores the histories with their outbox atomically,
+     * so a check-in occurrence is either fully enqueued or will be picked up again. The schedules are moved
+     * forward and released with one batched UPDATE keyed by schedule id and lease owner, a schedule whose lease
+     * expired and was claimed by another node is left to that node and nothing is enqueued for it here.
+     * An on-time dispatch gets one history, a catch-up one per missed execution, possibly none.
+     */
     @Override
-    public void saveNextExecution(UUID checkInUuid, ZonedDateTime nextExecution) {
-        Optional<CheckInEntity> checkIn = checkInRepository.findByUuid(checkInUuid);
-        CheckInNotificationScheduleEntity schedule = checkIn.get().getNotificationSchedule();
-        schedule.setNextExecution(nextExecution);
-        checkInNotificationScheduleRepository.save(schedule);
+    public List<UUID> enqueueDispatches(List<DispatchDto> dispatches, String leaseOwner) {
+        List<Object[]> updates = new ArrayList<>(dispatches.size());
+        LocalDateTime updatedAt = LocalDateTime.now();
+        for (DispatchDto dispatch : dispatches) {
+            updates.add(new Object[]{dispatch.getNextExecution() != null ? dispatch.getNextExecution().toOffsetDateTime() : null,
+                    updatedAt, dispatch.getCheckIn().getSchedule().getId(), leaseOwner});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_NEXT_EXECUTION, updates);
+
+        List<UUID> historyUuids = new ArrayList<>(dispatches.size());
+        for (int i = 0; i < dispatches.size(); i++) {
+            DispatchDto dispatch = dispatches.get(i);
+            DueCheckInDto checkIn = dispatch.getCheckIn();
+            if (counts[i] == 0) {
+                log.warn("Node {} lost the lease of check-in {}, it is not enqueued", leaseOwner, checkIn.getUuid());
+                continue;
+            }
+            if (dispatch.getCatchUpDeliveries() == null) {
+                historyUuids.add(saveHistory(checkIn));
+            } else {
+                for (List<ZonedDateTime> deliveries : dispatch.getCatchUpDeliveries()) {
+                    historyUuids.add(saveHistory(checkIn, deliveries));
+                }
+            }
+            eventPublisher.publishEvent(new CheckInScheduleChangedEvent(checkIn.getUuid(), dispatch.getNextExecution()));
+        }
+        return historyUuids;
     }
 
     @Override
@@ -263,13 +466,20 @@ public class RelationalDbCheckInService implements CheckInService {
         return convertToHistoryDtoListFromQuestions(allQuestions, slackUserCacheService.getAllUsers());
     }
 
+    private Duration spreadWindow(ScheduleDto schedule) {
+        if (schedule != null && schedule.getSpreadWindowSeconds() != null) {
+            return Duration.ofSeconds(schedule.getSpreadWindowSeconds());
+        }
+        return defaultSpreadWindow;
+    }
+
     private void saveSchedule(CheckInEntity checkIn, ScheduleDto schedule) {
         if (schedule.getStartDate() == null) {
             log.debug("Skipping schedule save - startDate is null");
             return;
         }
 
-        ZonedDateTime nextExecution = calculateNextExecution(schedule);
+        ZonedDateTime nextExecution = scheduleEngine.calculateNextExecution(schedule);
 
         CheckInNotificationScheduleEntity scheduleEntity = CheckInNotificationScheduleEntity.builder()
                 .checkIn(checkIn)
@@ -279,11 +489,15 @@ public class RelationalDbCheckInService implements CheckInService {
                 .frequency(schedule.getFrequency())
                 .weekDays(schedule.getDays() != null ? new ArrayList<>(schedule.getDays()) : new ArrayList<>())
                 .nextExecution(nextExecution)
+                .spreadWindowSeconds(schedule.getSpreadWindowSeconds())
+                .recurrenceRule(schedule.getRecurrenceRule())
+                .catchUpPolicy(schedule.getCatchUpPolicy())
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
 
         scheduleRepository.save(scheduleEntity);
+        eventPublisher.publishEvent(new CheckInScheduleChangedEvent(checkIn.getUuid(), nextExecution));
         log.info("Schedule saved for check-in ID: {} with next execution at: {}", checkIn.getId(), nextExecution);
     }
 
@@ -310,7 +524,10 @@ public class RelationalDbCheckInService implements CheckInService {
             scheduleEntity.setTimezone(schedule.getTimezone());
             scheduleEntity.setFrequency(schedule.getFrequency());
             scheduleEntity.setWeekDays(schedule.getDays() != null ? new ArrayList<>(schedule.getDays()) : new ArrayList<>());
-            scheduleEntity.setNextExecution(calculateNextExecution(schedule));
+            scheduleEntity.setNextExecution(scheduleEngine.calculateNextExecution(schedule));
+            scheduleEntity.setSpreadWindowSeconds(schedule.getSpreadWindowSeconds());
+            scheduleEntity.setRecurrenceRule(schedule.getRecurrenceRule());
+            scheduleEntity.setCatchUpPolicy(schedule.getCatchUpPolicy());
             scheduleEntity.setUpdatedAt(LocalDateTime.now());
             log.info("Schedule updated for check-in ID: {}", checkIn.getId());
         } else {
@@ -322,7 +539,10 @@ public class RelationalDbCheckInService implements CheckInService {
                     .timezone(schedule.getTimezone())
                     .frequency(schedule.getFrequency())
                     .weekDays(schedule.getDays() != null ? new ArrayList<>(schedule.getDays()) : new ArrayList<>())
-                    .nextExecution(calculateNextExecution(schedule))
+                    .nextExecution(scheduleEngine.calculateNextExecution(schedule))
+                    .spreadWindowSeconds(schedule.getSpreadWindowSeconds())
+                    .recurrenceRule(schedule.getRecurrenceRule())
+                    .catchUpPolicy(schedule.getCatchUpPolicy())
                     .createdAt(LocalDateTime.now())
                     .updatedAt(LocalDateTime.now())
                     .build();
@@ -331,4 +551,7 @@ public class RelationalDbCheckInService implements CheckInService {
 
         scheduleRepository.save(scheduleEntity);
     }
-}
\ No newline at end of file
+
+    private record ClaimCandidate(long id, String owner, ZonedDateTime dueAt) {
+    }
+}
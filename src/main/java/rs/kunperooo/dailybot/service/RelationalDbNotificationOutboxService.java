@@ -0,0 +1,188 @@
+package rs.kunperooo.dailybot.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rs.kunperooo.dailybot.entity.CheckInNotificationOutboxEntity;
+import rs.kunperooo.dailybot.entity.OutboxStatus;
+import rs.kunperooo.dailybot.repository.CheckInNotificationOutboxRepository;
+import rs.kunperooo.dailybot.repository.projection.DispatchCandidateProjection;
+import rs.kunperooo.dailybot.service.dto.OutboxMessageDto;
+import rs.kunperooo.dailybot.utils.Converter;
+import rs.kunperooo.dailybot.utils.FairDispatchQueue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RelationalDbNotificationOutboxService implements NotificationOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * Claim candidates are read several batches ahead, so owners behind a busy owner still get a share
+     */
+    private static final int CLAIM_LOOKAHEAD = 4;
+
+    private static final String SELECT_DELIVERED = """
+            SELECT idempotency_key
+            FROM check_in_delivery_ledger
+            WHERE idempotency_key IN (%s)""";
+
+    /**
+     * Keys already recorded, e.g. concurrently by another node, are kept as they are without raising an error,
+     * which on PostgreSQL would abort the transaction
+     */
+    private static final String MERGE_DELIVERED = """
+            MERGE INTO check_in_delivery_ledger l
+            USING (VALUES (CAST(? AS UUID), CAST(? AS TIMESTAMP WITH TIME ZONE))) AS d (idempotency_key, delivered_at)
+            ON l.idempotency_key = d.idempotency_key
+            WHEN NOT MATCHED THEN INSERT (idempotency_key, delivered_at) VALUES (d.idempotency_key, d.delivered_at)""";
+
+    /**
+     * PostgreSQL variant of {@link #MERGE_DELIVERED}, unlike MERGE it also tolerates a concurrent insert of the same key
+     */
+    private static final String INSERT_DELIVERED_ON_CONFLICT = """
+            INSERT INTO check_in_delivery_ledger (idempotency_key, delivered_at)
+            VALUES (?, ?)
+            ON CONFLICT (idempotency_key) DO NOTHING""";
+
+    private static final String DELETE_DELIVERED_BEFORE = """
+            DELETE FROM check_in_delivery_ledger
+            WHERE delivered_at < ?""";
+
+    private final CheckInNotificationOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("#{${check.in.fairness.weights:{:}}}")
+    private Map<String, Integer> ownerWeights;
+
+    @Value("${check.in.outbox.coalesce.enabled:true}")
+    private boolean coalesceEnabled;
+
+    private String insertDelivered;
+
+    @PostConstruct
+    public void init() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        insertDelivered = "PostgreSQL".equalsIgnoreCase(database) ? INSERT_DELIVERED_ON_CONFLICT : MERGE_DELIVERED;
+    }
+
+    @Override
+    public List<OutboxMessageDto> claimPending(ZonedDateTime now, String leaseOwner, Duration leaseDuration, int batchSize) {
+        List<Long> claimableIds = new FairDispatchQueue<>(DispatchCandidateProjection::getOwner, DispatchCandidateProjection::getDueAt, ownerWeights)
+                .addAll(outboxRepository.findClaimable(OutboxStatus.PENDING, now, Pageable.ofSize(batchSize * CLAIM_LOOKAHEAD)))
+                .poll(batchSize).stream()
+                .map(DispatchCandidateProjection::getId)
+                .toList();
+        if (!claimableIds.isEmpty()) {
+            int claimed = outboxRepository.claim(claimableIds, leaseOwner, now.plus(leaseDuration), now);
+            log.debug("Node {} claimed {} of {} pending notifications", leaseOwner, claimed, claimableIds.size());
+        }
+        List<CheckInNotificationOutboxEntity> claimed = outboxRepository.findClaimed(leaseOwner, OutboxStatus.PENDING, now);
+        if (!claimed.isEmpty() && coalesceEnabled) {
+            claimed = claimCoalescible(claimed, now, leaseOwner, leaseDuration);
+        }
+        List<OutboxMessageDto> messages = claimed.stream()
+                .map(Converter::convertToDto)
+                .toList();
+        // hand the batch to the dispatcher threads in the same fair order
+        return new FairDispatchQueue<>(OutboxMessageDto::getOwner, OutboxMessageDto::getNextAttemptAt, ownerWeights)
+                .addAll(messages)
+                .pollAll();
+    }
+
+    /**
+     * Also leases the other due rows of the same members, e.g. beyond the batch, so they go out together
+     * with the claimed ones instead of as separate messages. Rows not yet due are left alone, they keep the
+     * delivery slot assigned by spreading or the backfill lane.
+     */
+    private List<CheckInNotificationOutboxEntity> claimCoalescible(List<CheckInNotificationOutboxEntity> claimed, ZonedDateTime now,
+                                                                   String leaseOwner, Duration leaseDuration) {
+        Set<String> memberIds = claimed.stream()
+                .map(CheckInNotificationOutboxEntity::getMemberId)
+                .collect(Collectors.toSet());
+        int coalesced = outboxRepository.claimByMembers(memberIds, OutboxStatus.PENDING, leaseOwner, now.plus(leaseDuration), now);
+        if (coalesced == 0) {
+            return claimed;
+        }
+        log.debug("Node {} claimed {} more due notifications of the same members for coalescing", leaseOwner, coalesced);
+        return outboxRepository.findClaimed(leaseOwner, OutboxStatus.PENDING, now);
+    }
+
+    @Override
+    public void markDelivered(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxRepository.markDelivered(ids, OutboxStatus.DELIVERED, LocalDateTime.now());
+        }
+    }
+
+    @Override
+    public void markFailed(Long id, String error, ZonedDateTime nextAttemptAt) {
+        outboxRepository.findById(id).ifPresent(o -> o
+                .setAttempts(o.getAttempts() + 1)
+                .setLastError(truncate(error))
+                .setNextAttemptAt(nextAttemptAt)
+                .setLeaseOwner(null)
+                .setLeaseExpiresAt(null));
+    }
+
+    @Override
+    public void markExhausted(Long id, String error) {
+        outboxRepository.findById(id).ifPresent(o -> o
+                .setStatus(OutboxStatus.FAILED)
+                .setAttempts(o.getAttempts() + 1)
+                .setLastError(truncate(error))
+                .setLeaseOwner(null)
+                .setLeaseExpiresAt(null));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<UUID> findDelivered(Collection<UUID> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(idempotencyKeys.size(), "?"));
+        return new HashSet<>(jdbcTemplate.query(SELECT_DELIVERED.formatted(placeholders),
+                (rs, rowNum) -> rs.getObject(1, UUID.class), idempotencyKeys.toArray()));
+    }
+
+    /**
+     * Recorded right after the Slack call succeeded with one batched statement, a key recorded concurrently by
+     * another node is kept as it is
+     */
+    @Override
+    public void recordDelivered(Collection<UUID> idempotencyKeys, ZonedDateTime deliveredAt) {
+        jdbcTemplate.batchUpdate(insertDelivered, idempotencyKeys.stream()
+                .map(key -> new Object[]{key, deliveredAt.toOffsetDateTime()})
+                .toList());
+    }
+
+    @Override
+    public int purgeDeliveryLedger(ZonedDateTime deliveredBefore) {
+        return jdbcTemplate.update(DELETE_DELIVERED_BEFORE, deliveredBefore.toOffsetDateTime());
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,213 @@
+package rs.kunperooo.dailybot.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import rs.kunperooo.dailybot.entity.Frequency;
+import rs.kunperooo.dailybot.service.dto.ScheduleDto;
+import rs.kunperooo.dailybot.service.dto.ScheduleRecomputeStatusDto;
+import rs.kunperooo.dailybot.service.event.SchedulesRecomputedEvent;
+import rs.kunperooo.dailybot.utils.WeekDayListJsonConverter;
+
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rewrites next_execution of all schedules, for example after a tzdata update, a downtime or a change of
+ * the scheduling algorithm. Schedules are read page by page with keyset pagination on plain JDBC rows,
+ * so memory stays bounded by the page size. Each page is evaluated in parallel on a dedicated fork-join pool
+ * and written back with one batched UPDATE. Schedules currently leased by a dispatching node are skipped,
+ * the dispatch itself moves them forward, and so are schedules already due, so a pending execution is never
+ * moved past.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelationalDbScheduleRecomputeService implements ScheduleRecomputeService {
+
+    private static final String SELECT_PAGE = """
+            SELECT id, start_date, frequency, time, timezone, week_days, recurrence_rule
+            FROM check_in_notification_schedule
+            WHERE id > ?
+            ORDER BY id
+            LIMIT ?""";
+
+    private static final String UPDATE_NEXT_EXECUTION = """
+            UPDATE check_in_notification_schedule
+            SET next_execution = ?, updated_at = ?
+            WHERE id = ? AND (lease_expires_at IS NULL OR lease_expires_at < ?)
+              AND (next_execution IS NULL OR next_execution >= ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduleEngine scheduleEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${check.in.recompute.page.size:1000}")
+    private int pageSize;
+
+    @Value("${check.in.recompute.parallelism:0}")
+    private int parallelism;
+
+    private final WeekDayListJsonConverter weekDayConverter = new WeekDayListJsonConverter();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile ZonedDateTime startedAt;
+    private volatile ZonedDateTime finishedAt;
+    private volatile String lastError;
+
+    private ExecutorService driver;
+    private ForkJoinPool computePool;
+
+    private record ScheduleRow(long id, LocalDate startDate, String frequency, LocalTime time, String timezone,
+                               String weekDays, String recurrenceRule) {
+    }
+
+    @PostConstruct
+    public void init() {
+        int poolParallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        log.info("Configuring schedule recompute with page size: {}, parallelism: {}", pageSize, poolParallelism);
+        computePool = new ForkJoinPool(poolParallelism);
+        driver = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("schedule-recompute")
+                .setDaemon(true)
+                .build());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        driver.shutdownNow();
+        computePool.shutdown();
+        computePool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public ScheduleRecomputeStatusDto start() {
+        if (running.compareAndSet(false, true)) {
+            total.set(0);
+            processed.set(0);
+            updated.set(0);
+            failed.set(0);
+            lastError = null;
+            startedAt = scheduleEngine.now();
+            finishedAt = null;
+            driver.execute(this::recomputeAll);
+        }
+        return getStatus();
+    }
+
+    @Override
+    public ScheduleRecomputeStatusDto getStatus() {
+        return ScheduleRecomputeStatusDto.builder()
+                .running(running.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .total(total.get())
+                .processed(processed.get())
+                .updated(updated.get())
+                .failed(failed.get())
+                .lastError(lastError)
+                .build();
+    }
+
+    private void recomputeAll() {
+        Instant now = scheduleEngine.now().toInstant();
+        try {
+            total.set(Objects.requireNonNullElse(
+                    jdbcTemplate.queryForObject("SELECT COUNT(*) FROM check_in_notification_schedule", Long.class), 0L));
+            log.info("Recomputing next execution of {} schedules", total.get());
+
+            long lastId = 0;
+            List<ScheduleRow> page;
+            do {
+                page = jdbcTemplate.query(SELECT_PAGE, (rs, rowNum) -> new ScheduleRow(
+                        rs.getLong("id"),
+                        rs.getObject("start_date", LocalDate.class),
+                        rs.getString("frequency"),
+                        rs.getObject("time", LocalTime.class),
+                        rs.getString("timezone"),
+                        rs.getString("week_days"),
+                        rs.getString("recurrence_rule")), lastId, pageSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).id();
+
+                List<ScheduleRow> rows = page;
+                LocalDateTime updatedAt = LocalDateTime.now();
+                List<Object[]> updates = computePool.submit(() -> rows.parallelStream()
+                        .map(row -> recompute(row, now, updatedAt))
+                        .filter(Objects::nonNull)
+                        .toList()).get();
+
+                int written = 0;
+                for (int count : jdbcTemplate.batchUpdate(UPDATE_NEXT_EXECUTION, updates)) {
+                    written += count > 0 || count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+                }
+                updated.addAndGet(written);
+                processed.addAndGet(rows.size());
+                log.debug("Recomputed {} of {} schedules", processed.get(), total.get());
+            } while (page.size() == pageSize);
+
+            log.info("Recomputed next execution of {} schedules, {} updated, {} failed",
+                    processed.get(), updated.get(), failed.get());
+            eventPublisher.publishEvent(new SchedulesRecomputedEvent(updated.get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lastError = "Interrupted";
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("Schedule recompute failed after {} schedules: {}", processed.get(), e.getMessage(), e);
+            lastError = e.getMessage();
+        } finally {
+            finishedAt = scheduleEngine.now();
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return UPDATE arguments, or null when the stored schedule cannot be evaluated
+     */
+    private Object[] recompute(ScheduleRow row, Instant now, LocalDateTime updatedAt) {
+        try {
+            ScheduleDto schedule = ScheduleDto.builder()
+                    .startDate(row.startDate())
+                    .time(row.time())
+                    .timezone(row.timezone())
+                    .frequency(row.frequency() != null ? Frequency.valueOf(row.frequency()) : null)
+                    .days(weekDayConverter.convertToEntityAttribute(row.weekDays()))
+                    .recurrenceRule(scheduleEngine.recurrenceRule(row.recurrenceRule()))
+                    .build();
+            ZonedDateTime nextExecution = scheduleEngine.calculateNextExecution(schedule, now);
+            return new Object[]{nextExecution != null ? nextExecution.toOffsetDateTime() : null, updatedAt, row.id(),
+                    now.atOffset(ZoneOffset.UTC), now.atOffset(ZoneOffset.UTC)};
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            lastError = "Schedule " + row.id() + ": " + e.getMessage();
+            log.warn("Cannot recompute next execution of schedule {}: {}", row.id(), e.getMessage());
+            return null;
+        }
+    }
+}
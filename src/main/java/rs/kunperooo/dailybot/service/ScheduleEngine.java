@@ -0,0 +1,65 @@
+package rs.kunperooo.dailybot.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import rs.kunperooo.dailybot.service.dto.ScheduleDto;
+import rs.kunperooo.dailybot.utils.RecurrenceRule;
+import rs.kunperooo.dailybot.utils.ScheduleUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Schedule calculations against the application clock. Timezones are resolved once per distinct id and kept
+ * together with their already loaded zone rules, so repeated evaluations skip the zone lookup entirely.
+ * Recurrence rules read as text are likewise compiled once per distinct rule.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleEngine {
+
+    private final Clock clock;
+    private final Map<String, ZoneId> zones = new ConcurrentHashMap<>();
+    private final Cache<String, RecurrenceRule> recurrenceRules = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    public ZonedDateTime now() {
+        return ZonedDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+    }
+
+    public ZonedDateTime calculateNextExecution(ScheduleDto schedule) {
+        return calculateNextExecution(schedule, clock.instant());
+    }
+
+    public ZonedDateTime calculateNextExecution(ScheduleDto schedule, Instant after) {
+        return ScheduleUtils.calculateNextExecution(schedule, after, this::zone);
+    }
+
+    public Stream<ZonedDateTime> occurrences(ScheduleDto schedule) {
+        return occurrences(schedule, clock.instant());
+    }
+
+    public Stream<ZonedDateTime> occurrences(ScheduleDto schedule, Instant after) {
+        return ScheduleUtils.occurrences(schedule, after, this::zone);
+    }
+
+    public ZoneId zone(String timezone) {
+        return zones.computeIfAbsent(timezone, ZoneId::of);
+    }
+
+    /**
+     * @return the compiled rule, null for a missing rule
+     */
+    public RecurrenceRule recurrenceRule(String rule) {
+        return rule == null || rule.isBlank() ? null : recurrenceRules.asMap().computeIfAbsent(rule, RecurrenceRule::parse);
+    }
+}
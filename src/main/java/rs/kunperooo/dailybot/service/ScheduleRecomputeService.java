@@ -0,0 +1,13 @@
+package rs.kunperooo.dailybot.service;
+
+import rs.kunperooo.dailybot.service.dto.ScheduleRecomputeStatusDto;
+
+public interface ScheduleRecomputeService {
+    /**
+     * Starts recomputing the next execution of every schedule in the background.
+     * Does nothing but report the progress when a recompute is already running.
+     */
+    ScheduleRecomputeStatusDto start();
+
+    ScheduleRecomputeStatusDto getStatus();
+}
@@ -1,38 +1,29 @@
 package rs.kunperooo.dailybot.service;
 
-import com.slack.api.Slack;
-import com.slack.api.app_backend.interactive_components.ActionResponseSender;
-import com.slack.api.app_backend.interactive_components.response.ActionResponse;
+import com.google.gson.Gson;
+import com.slack.api.methods.Methods;
 import com.slack.api.methods.MethodsClient;
 import com.slack.api.methods.SlackApiException;
-import com.slack.api.methods.request.chat.ChatPostMessageRequest;
 import com.slack.api.methods.request.users.UsersInfoRequest;
-import com.slack.api.methods.request.views.ViewsOpenRequest;
-import com.slack.api.methods.response.chat.ChatPostMessageResponse;
 import com.slack.api.methods.response.users.UsersInfoResponse;
 import com.slack.api.methods.response.users.UsersListResponse;
-import com.slack.api.methods.response.views.ViewsOpenResponse;
 import com.slack.api.model.Message;
 import com.slack.api.model.User;
-import com.slack.api.model.block.Blocks;
 import com.slack.api.model.block.LayoutBlock;
-import com.slack.api.model.block.composition.BlockCompositions;
-import com.slack.api.model.block.element.BlockElements;
-import com.slack.api.model.view.View;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import rs.kunperooo.dailybot.service.dto.SlackUserDto;
+import rs.kunperooo.dailybot.service.resilience.SlackResilience;
+import rs.kunperooo.dailybot.utils.PreparedChatMessage;
 import rs.kunperooo.dailybot.utils.SlackUserConverter;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import static rs.kunperooo.dailybot.utils.ActionId.FINISH_CHECK_IN;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -46,8 +37,9 @@ public class SlackApiService {
     @Value("${slack.app.users.read.page.size:100}")
     private int usersReadPageSize;
 
-    private final Slack slack;
-    private final ActionResponseSender actionResponseSender;
+    private final SlackMethodsClients methodsClients;
+    private final Gson gson;
+    private final SlackResilience resilience;
 
     /**
      * Retrieves active users only (excluding deleted and bot users)
@@ -84,7 +76,8 @@ public class SlackApiService {
      */
     public SlackUserDto getUser(String slackUserId) {
         try {
-            UsersInfoResponse usersInfoResponse = slack.methods(slackBotToken).usersInfo(UsersInfoRequest.builder().user(slackUserId).build());
+            UsersInfoResponse usersInfoResponse = resilience.call(Methods.USERS_INFO, null,
+                    () -> methodsClients.methods(slackBotToken).usersInfo(UsersInfoRequest.builder().user(slackUserId).build()));
             if (!usersInfoResponse.isOk()) {
                 log.error("Failed to retrieve user from Slack: {}", usersInfoResponse.getError());
                 throw new RuntimeException("Failed to retrieve user: " + usersInfoResponse.getError());
@@ -101,91 +94,10 @@ public class SlackApiService {
     }
 
     /**
-     * Open view in conversation
-     *
-     * @return
-     * @throws SlackApiException if Slack API returns an error
-     * @throws IOException       if there's a network error
-     */
-    public void openCheckInAnswersView(String triggerId, View view) {
-        try {
-            ViewsOpenResponse response = slack.methods(slackBotToken).viewsOpen(
-                    ViewsOpenRequest.builder()
-                            .triggerId(triggerId)
-                            .view(view)
-                            .build()
-            );
-            if (!response.isOk()) {
-                log.error("Failed to open view: {}", response.getError());
-                throw new RuntimeException("Failed to open view: " + response.getError());
-            }
-            log.info(response.toString());
-        } catch (SlackApiException e) {
-            log.error("Slack API error while opening view: {}", e.getMessage(), e);
-            throw new RuntimeException(e);
-        } catch (IOException e) {
-            log.error("IO error while opening view: {}", e.getMessage(), e);
-            throw new RuntimeException(e);
-        }
-    }
-
-    /**
-     * Send webhook back to conversation
-     *
-     * @return
-     * @throws SlackApiException if Slack API returns an error
-     * @throws IOException       if there's a network error
-     */
-    public void sendActionResponse(String userId, String responseUrl, String outroMessage) {
-        log.info("Sending ephemeral message to user {}", userId);
-
-        List<LayoutBlock> blocks = List.of(
-                Blocks.section(section -> section.text(BlockCompositions.markdownText(outroMessage))),
-                Blocks.actions(actions -> actions
-                        .elements(List.of(
-                                BlockElements.button(b -> b
-                                        .text(BlockCompositions.plainText("Edit"))
-                                        .actionId(FINISH_CHECK_IN.name())
-                                        .value("finish"))
-                        ))
-                )
-        );
-        try {
-            actionResponseSender.send(responseUrl, ActionResponse.builder()
-                    .replaceOriginal(true)
-                    .blocks(blocks)
-                    .build());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    /**
-     * Send message to conversation
-     *
-     * @return
-     * @throws SlackApiException if Slack API returns an error
-     * @throws IOException       if there's a network error
+     * Renders a message once, so it can be sent to many channels with {@link AsyncSlackApiService#sendChatPostMessage(String, PreparedChatMessage)}
      */
-    public void sendChatPostMessage(String channelId, List<LayoutBlock> blocks, Message.Metadata metadata) {
-        try {
-            ChatPostMessageResponse response = slack.methods(slackBotToken).chatPostMessage(
-                    ChatPostMessageRequest.builder()
-                            .channel(channelId)
-                            .metadata(metadata)
-                            .blocks(blocks)
-                            .build()
-            );
-            if (!response.isOk()) {
-                throw new RuntimeException("Failed to send interactive message: " + response.getError());
-            }
-        } catch (SlackApiException e) {
-            log.error("Slack API error while sending chat post message: {}", e.getMessage(), e);
-            throw new RuntimeException(e);
-        } catch (IOException e) {
-            log.error("IO error while sending chat post message: {}", e.getMessage(), e);
-            throw new RuntimeException(e);
-        }
+    public PreparedChatMessage prepareChatPostMessage(List<LayoutBlock> blocks, Message.Metadata metadata) {
+        return PreparedChatMessage.of(gson, blocks, metadata);
     }
 
     private List<User> getAllUsers() throws SlackApiException, IOException {
@@ -196,7 +108,7 @@ public class SlackApiService {
             throw new IllegalStateException("Slack bot token is not configured");
         }
 
-        MethodsClient methods = slack.methods(slackBotToken);
+        MethodsClient methods = methodsClients.methods(slackBotToken);
         List<User> allUsers = new ArrayList<>();
         String cursor = null;
 
@@ -205,16 +117,16 @@ public class SlackApiService {
                 UsersListResponse response;
                 if (cursor != null && !cursor.isEmpty()) {
                     String finalCursor = cursor;
-                    response = methods.usersList(req -> req
+                    response = resilience.call(Methods.USERS_LIST, null, () -> methods.usersList(req -> req
                             .limit(usersReadPageSize)
                             .includeLocale(true)
                             .cursor(finalCursor)
-                    );
+                    ));
                 } else {
-                    response = methods.usersList(req -> req
+                    response = resilience.call(Methods.USERS_LIST, null, () -> methods.usersList(req -> req
                             .limit(usersReadPageSize)
                             .includeLocale(true)
-                    );
+                    ));
                 }
 
                 if (!response.isOk()) {
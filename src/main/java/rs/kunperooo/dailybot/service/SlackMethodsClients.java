@@ -0,0 +1,31 @@
+package rs.kunperooo.dailybot.service;
+
+import com.slack.api.Slack;
+import com.slack.api.methods.AsyncMethodsClient;
+import com.slack.api.methods.MethodsClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Methods clients created once per token and shared, instead of a new client for every call.
+ * All of them use the HTTP client of the {@link Slack} bean.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlackMethodsClients {
+    private final Slack slack;
+
+    private final Map<String, MethodsClient> methods = new ConcurrentHashMap<>();
+    private final Map<String, AsyncMethodsClient> asyncMethods = new ConcurrentHashMap<>();
+
+    public MethodsClient methods(String token) {
+        return methods.computeIfAbsent(token, slack::methods);
+    }
+
+    public AsyncMethodsClient methodsAsync(String token) {
+        return asyncMethods.computeIfAbsent(token, slack::methodsAsync);
+    }
+}
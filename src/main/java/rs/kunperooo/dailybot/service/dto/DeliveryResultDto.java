@@ -0,0 +1,17 @@
+package rs.kunperooo.dailybot.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of delivering a check-in notification to a single member
+ */
+@Data
+@Builder
+public class DeliveryResultDto {
+    private String memberId;
+
+    private boolean delivered;
+
+    private String error;
+}
@@ -0,0 +1,23 @@
+package rs.kunperooo.dailybot.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Due check-in of a scheduler batch together with everything needed to enqueue it
+ */
+@Data
+@Builder
+public class DispatchDto {
+    private DueCheckInDto checkIn;
+
+    private ZonedDateTime nextExecution;
+
+    /**
+     * Member deliveries per missed execution, null for an execution on time which is spread over the spread window
+     */
+    private List<List<ZonedDateTime>> catchUpDeliveries;
+}
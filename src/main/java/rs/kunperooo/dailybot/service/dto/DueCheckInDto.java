@@ -0,0 +1,29 @@
+package rs.kunperooo.dailybot.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Flat view of a claimed check-in with only what dispatching it needs
+ */
+@Data
+@Builder
+public class DueCheckInDto {
+    private Long id;
+
+    private UUID uuid;
+
+    private String introMessage;
+
+    private List<String> memberIds;
+
+    /**
+     * Active questions in their order
+     */
+    private List<Long> questionIds;
+
+    private ScheduleDto schedule;
+}
@@ -0,0 +1,32 @@
+package rs.kunperooo.dailybot.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Pending notification of a single member claimed from the outbox
+ */
+@Data
+@Builder
+public class OutboxMessageDto {
+    private Long id;
+
+    private UUID historyUuid;
+
+    private UUID checkInUuid;
+
+    private String owner;
+
+    private String memberId;
+
+    private UUID idempotencyKey;
+
+    private String introMessage;
+
+    private int attempts;
+
+    private ZonedDateTime nextAttemptAt;
+}
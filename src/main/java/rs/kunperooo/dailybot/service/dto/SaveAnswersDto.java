@@ -15,5 +15,12 @@ public class SaveAnswersDto {
 
     private String responseUrl;
 
+    private UUID checkInHistoryUuid;
+
+    /**
+     * Whether the outro replaces the answered message, it does not when that message holds other check-ins
+     */
+    private boolean replaceOriginal;
+
     List<AnswerDto> answers;
 }
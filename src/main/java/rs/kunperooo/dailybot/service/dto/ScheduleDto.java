@@ -5,11 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import rs.kunperooo.dailybot.entity.CatchUpPolicy;
 import rs.kunperooo.dailybot.entity.Frequency;
+import rs.kunperooo.dailybot.utils.RecurrenceRule;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZonedDateTime;
 import java.util.List;
 
 @Data
@@ -17,9 +20,14 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 public class ScheduleDto {
+    private Long id;
     private LocalDate startDate;
     private LocalTime time;
     private String timezone;
     private Frequency frequency;
     private List<DayOfWeek> days;
+    private ZonedDateTime nextExecution;
+    private Integer spreadWindowSeconds;
+    private RecurrenceRule recurrenceRule;
+    private CatchUpPolicy catchUpPolicy;
 }
@@ -0,0 +1,23 @@
+package rs.kunperooo.dailybot.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduleRecomputeStatusDto {
+    private boolean running;
+    private ZonedDateTime startedAt;
+    private ZonedDateTime finishedAt;
+    private long total;
+    private long processed;
+    private long updated;
+    private long failed;
+    private String lastError;
+}
@@ -0,0 +1,19 @@
+package rs.kunperooo.dailybot.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Published whenever the next execution of a check-in changes.
+ * A null next execution means the check-in is no longer scheduled.
+ */
+@Data
+@AllArgsConstructor
+public class CheckInScheduleChangedEvent {
+    private UUID checkInUuid;
+
+    private ZonedDateTime nextExecution;
+}
@@ -0,0 +1,14 @@
+package rs.kunperooo.dailybot.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after next executions were rewritten in bulk, listeners reload them instead of
+ * receiving a {@link CheckInScheduleChangedEvent} per schedule.
+ */
+@Data
+@AllArgsConstructor
+public class SchedulesRecomputedEvent {
+    private long updated;
+}
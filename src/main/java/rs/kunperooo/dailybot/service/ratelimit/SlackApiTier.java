@@ -0,0 +1,34 @@
+package rs.kunperooo.dailybot.service.ratelimit;
+
+import com.slack.api.methods.Methods;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Slack Web API rate limit tiers, the limit is the number of calls per minute per workspace
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SlackApiTier {
+    TIER_1(1),
+    TIER_2(20),
+    TIER_3(50),
+    TIER_4(100);
+
+    private static final Map<String, SlackApiTier> METHOD_TIERS = Map.of(
+            Methods.USERS_LIST, TIER_2,
+            Methods.USERS_INFO, TIER_4,
+            Methods.VIEWS_OPEN, TIER_4
+    );
+
+    private final int callsPerMinute;
+
+    /**
+     * @return tier of a method, methods without a known tier are treated as Tier 3
+     */
+    public static SlackApiTier of(String method) {
+        return METHOD_TIERS.getOrDefault(method, TIER_3);
+    }
+}
@@ -0,0 +1,196 @@
+package rs.kunperooo.dailybot.service.ratelimit;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.slack.api.methods.Methods;
+import com.slack.api.methods.SlackApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Paces Slack Web API calls with token buckets, one per method sized by the method tier and, for
+ * chat.postMessage, one per workspace and one per channel. Calls over the budget are queued and released
+ * at the bucket rate instead of being sent and rejected. A rate limited response parks the bucket until
+ * its Retry-After time and the call is queued again, so large fan-outs run at the highest allowed rate.
+ * Budgets are exposed as slack.api.rate.limit.* metrics.
+ */
+@Component
+@Slf4j
+public class SlackRateLimiter {
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final MeterRegistry meterRegistry;
+    private final Ticker ticker = Ticker.systemTicker();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("slack-rate-limiter-%d")
+            .setDaemon(true)
+            .build());
+
+    private final Map<String, TokenBucket> methodBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * Channels not posted to for a minute have a full bucket again, so they can be dropped
+     */
+    private final Cache<String, TokenBucket> channelBuckets = CacheBuilder.newBuilder()
+            .expireAfterAccess(1, TimeUnit.MINUTES)
+            .build();
+
+    @Value("${slack.api.rate.limit.post.message.per.minute:300}")
+    private int postMessagesPerMinute;
+
+    @Value("${slack.api.rate.limit.post.message.per.channel.per.minute:60}")
+    private int postMessagesPerChannelPerMinute;
+
+    @Value("${slack.api.rate.limit.retries:3}")
+    private int rateLimitedRetries;
+
+    public SlackRateLimiter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("slack.api.rate.limit.channels", channelBuckets, Cache::size)
+                .description("Channels with their own chat.postMessage budget")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Sends a call once the budget allows it, a rate limited call is queued again after its Retry-After
+     *
+     * @param channel channel a message is posted to, null for calls that are not posting
+     */
+    public <T> CompletableFuture<T> submit(String method, String channel, Supplier<CompletableFuture<T>> call) {
+        return submit(method, channel, call, rateLimitedRetries);
+    }
+
+    /**
+     * @return completed once the call may be sent
+     */
+    public CompletableFuture<Void> acquire(String method, String channel) {
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        long start = ticker.read();
+        await(buckets(method, channel), ready);
+        return ready.whenComplete((v, e) -> Timer.builder("slack.api.rate.limit.wait")
+                .description("Time calls are queued for their rate limit budget")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(ticker.read() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private <T> CompletableFuture<T> submit(String method, String channel, Supplier<CompletableFuture<T>> call, int retries) {
+        return acquire(method, channel)
+                .thenCompose(v -> call.get())
+                .handle((result, e) -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause == null) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    if (retries > 0 && cause instanceof SlackApiException slackApiException && isRateLimited(slackApiException)) {
+                        onRateLimited(method, channel, slackApiException);
+                        return submit(method, channel, call, retries - 1);
+                    }
+                    return CompletableFuture.<T>failedFuture(cause);
+                })
+                .thenCompose(f -> f);
+    }
+
+    /**
+     * Reserves a token of every bucket and waits for the latest one. A call released while one of its buckets
+     * was parked in the meantime reserves again, behind the park.
+     */
+    private void await(List<TokenBucket> buckets, CompletableFuture<Void> ready) {
+        long now = ticker.read();
+        long readyAt = now;
+        for (TokenBucket bucket : buckets) {
+            readyAt = Math.max(readyAt, bucket.reserve(now));
+        }
+        if (readyAt <= now) {
+            ready.complete(null);
+            return;
+        }
+        scheduler.schedule(() -> {
+            long releasedAt = ticker.read();
+            if (buckets.stream().anyMatch(b -> b.isParked(releasedAt))) {
+                await(buckets, ready);
+            } else {
+                ready.complete(null);
+            }
+        }, readyAt - now, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A posting call parks only its channel, so a busy channel does not stall posting to the others
+     */
+    private void onRateLimited(String method, String channel, SlackApiException e) {
+        Duration retryAfter = retryAfter(e);
+        log.warn("Slack rate limited {}{}, parking calls for {}", method, channel != null ? " to " + channel : "", retryAfter);
+        Counter.builder("slack.api.rate.limited")
+                .description("Rate limited Slack API responses")
+                .tag("method", method)
+                .register(meterRegistry)
+                .increment();
+        long now = ticker.read();
+        TokenBucket bucket = channel != null ? channelBucket(channel) : methodBucket(method);
+        bucket.park(now, now + retryAfter.toNanos());
+    }
+
+    private List<TokenBucket> buckets(String method, String channel) {
+        if (channel != null && Methods.CHAT_POST_MESSAGE.equals(method)) {
+            return List.of(methodBucket(method), channelBucket(channel));
+        }
+        return List.of(methodBucket(method));
+    }
+
+    private TokenBucket methodBucket(String method) {
+        return methodBuckets.computeIfAbsent(method, m -> {
+            int callsPerMinute = Methods.CHAT_POST_MESSAGE.equals(m) ? postMessagesPerMinute : SlackApiTier.of(m).getCallsPerMinute();
+            TokenBucket bucket = new TokenBucket(callsPerMinute, Math.ceil(callsPerMinute / 60d), ticker.read());
+            Gauge.builder("slack.api.rate.limit.budget", bucket, b -> b.available(ticker.read()))
+                    .description("Calls that can be sent right away, negative while calls are queued")
+                    .tag("method", m)
+                    .register(meterRegistry);
+            return bucket;
+        });
+    }
+
+    private TokenBucket channelBucket(String channel) {
+        return channelBuckets.asMap().computeIfAbsent(channel, c -> new TokenBucket(postMessagesPerChannelPerMinute,
+                Math.ceil(postMessagesPerChannelPerMinute / 60d), ticker.read()));
+    }
+
+    private static boolean isRateLimited(SlackApiException e) {
+        return e.getResponse() != null && e.getResponse().code() == TOO_MANY_REQUESTS;
+    }
+
+    private static Duration retryAfter(SlackApiException e) {
+        String header = e.getResponse().header("Retry-After");
+        try {
+            return header != null ? Duration.ofSeconds(Long.parseLong(header.trim())) : DEFAULT_RETRY_AFTER;
+        } catch (NumberFormatException ex) {
+            return DEFAULT_RETRY_AFTER;
+        }
+    }
+
+}
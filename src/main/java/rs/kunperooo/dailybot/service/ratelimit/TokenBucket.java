@@ -0,0 +1,69 @@
+package rs.kunperooo.dailybot.service.ratelimit;
+
+/**
+ * Token bucket that hands out reservations instead of rejecting calls. A call taking a token
+ * from an empty bucket goes into debt and gets the time at which its token is refilled, so queued
+ * calls are spaced at exactly the bucket rate. Times are ticker nanos.
+ * Parking the bucket after a rate limited response moves its refill to the Retry-After time, where a single
+ * token is available, and drops the debt, calls queued before are expected to reserve again once they notice the park.
+ */
+public class TokenBucket {
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long updatedAt;
+    private long parkedUntil;
+
+    /**
+     * @param capacity burst size, the bucket starts full
+     */
+    public TokenBucket(double callsPerMinute, double capacity, long now) {
+        this.tokensPerNano = callsPerMinute / 60_000_000_000d;
+        this.capacity = Math.max(1, capacity);
+        this.tokens = this.capacity;
+        this.updatedAt = now;
+        this.parkedUntil = now;
+    }
+
+    /**
+     * Takes a token
+     *
+     * @return time at which the caller may proceed
+     */
+    public synchronized long reserve(long now) {
+        refill(now);
+        tokens -= 1;
+        return tokens >= 0 ? updatedAt : updatedAt + (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    /**
+     * Stops handing out tokens until the given time
+     */
+    public synchronized void park(long now, long until) {
+        refill(now);
+        if (until > updatedAt) {
+            updatedAt = until;
+            tokens = 1;
+        }
+        parkedUntil = Math.max(parkedUntil, until);
+    }
+
+    public synchronized boolean isParked(long now) {
+        return now < parkedUntil;
+    }
+
+    /**
+     * @return tokens available now, negative while calls are queued
+     */
+    public synchronized double available(long now) {
+        return now > updatedAt ? Math.min(capacity, tokens + (now - updatedAt) * tokensPerNano) : tokens;
+    }
+
+    private void refill(long now) {
+        if (now > updatedAt) {
+            tokens = Math.min(capacity, tokens + (now - updatedAt) * tokensPerNano);
+            updatedAt = now;
+        }
+    }
+}
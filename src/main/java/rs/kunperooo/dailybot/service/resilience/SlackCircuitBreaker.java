@@ -0,0 +1,74 @@
+package rs.kunperooo.dailybot.service.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker for Slack calls. After the given number of consecutive failures it opens and
+ * rejects calls for the open duration, then lets a single trial call through: its success closes
+ * the circuit, its failure opens it again. Times are ticker nanos.
+ */
+@Slf4j
+public class SlackCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public SlackCircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * @return whether a call may be sent now, a half-open circuit lets through one call at a time
+     */
+    public synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN && now - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Slack circuit closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure(long now) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("Slack circuit opened after {} consecutive failures", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = now;
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
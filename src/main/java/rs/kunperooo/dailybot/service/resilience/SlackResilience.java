@@ -0,0 +1,236 @@
+package rs.kunperooo.dailybot.service.resilience;
+
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.slack.api.methods.Methods;
+import com.slack.api.methods.SlackApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rs.kunperooo.dailybot.service.ratelimit.SlackRateLimiter;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Wraps every Slack call in a circuit breaker, a per-call timeout and retries with jittered exponential backoff.
+ * Only failures that cannot have reached Slack are retried for every method, timeouts, other network errors
+ * and server errors are retried for read-only methods alone, so a message is never posted twice.
+ * Timeouts, network and server errors count as circuit failures, any other response from Slack as a success.
+ * Web API calls additionally go through {@link SlackRateLimiter}, its queueing is not part of the call timeout.
+ * Blocking calls run on a bounded pool, so callers are released after the timeout however long Slack takes.
+ */
+@Component
+@Slf4j
+public class SlackResilience {
+    /**
+     * Pseudo method of action responses, they are posted to a response URL and are not rate limited
+     */
+    public static final String RESPONSE_URL = "response_url";
+
+    private static final Set<String> READ_ONLY_METHODS = Set.of(Methods.USERS_INFO, Methods.USERS_LIST, Methods.AUTH_TEST);
+
+    private final SlackRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Ticker ticker = Ticker.systemTicker();
+
+    @Value("${slack.api.retry.attempts:3}")
+    private int retryAttempts;
+
+    @Value("${slack.api.retry.backoff:PT0.5S}")
+    private Duration retryBackoff;
+
+    @Value("${slack.api.retry.max.backoff:PT10S}")
+    private Duration maxRetryBackoff;
+
+    @Value("${slack.api.call.timeout:PT10S}")
+    private Duration callTimeout;
+
+    /**
+     * Timeouts of single methods, e.g. {'views.open': 'PT3S'}
+     */
+    @Value("#{${slack.api.call.timeouts:{:}}}")
+    private Map<String, String> methodTimeouts;
+
+    @Value("${slack.api.circuit.failure.threshold:5}")
+    private int failureThreshold;
+
+    @Value("${slack.api.circuit.open.duration:PT30S}")
+    private Duration openDuration;
+
+    @Value("${slack.api.blocking.thread.pool.size:8}")
+    private int blockingThreadPoolSize;
+
+    private SlackCircuitBreaker circuitBreaker;
+    private ExecutorService blockingExecutor;
+
+    public SlackResilience(SlackRateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        log.info("Configuring Slack calls with retry attempts: {}, call timeout: {}, method timeouts: {}, circuit failure threshold: {}",
+                retryAttempts, callTimeout, methodTimeouts, failureThreshold);
+        circuitBreaker = new SlackCircuitBreaker(failureThreshold, openDuration.toNanos());
+        blockingExecutor = Executors.newFixedThreadPool(blockingThreadPoolSize, new ThreadFactoryBuilder()
+                .setNameFormat("slack-call-%d")
+                .setDaemon(true)
+                .build());
+        Gauge.builder("slack.api.circuit.state", circuitBreaker, b -> b.getState().ordinal())
+                .description("Slack circuit state, 0 closed, 1 open, 2 half open")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        blockingExecutor.shutdownNow();
+    }
+
+    /**
+     * @param channel channel a message is posted to, null for calls that are not posting
+     */
+    public <T> CompletableFuture<T> submit(String method, String channel, Supplier<CompletableFuture<T>> call) {
+        return submit(method, channel, call, 0);
+    }
+
+    /**
+     * Blocking counterpart of {@link #submit(String, String, Supplier)}
+     */
+    public <T> T call(String method, String channel, SlackCall<T> call) throws IOException, SlackApiException {
+        try {
+            return submit(method, channel, () -> supplyBlocking(call)).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof SlackApiException slackApiException) {
+                throw slackApiException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(String method, String channel, Supplier<CompletableFuture<T>> call, int attempt) {
+        if (!circuitBreaker.tryAcquire(ticker.read())) {
+            return CompletableFuture.failedFuture(new SlackUnavailableException(method));
+        }
+        Supplier<CompletableFuture<T>> timed = () -> withTimeout(method, call.get());
+        CompletableFuture<T> result = RESPONSE_URL.equals(method) ? timed.get() : rateLimiter.submit(method, channel, timed);
+        return result
+                .handle((r, e) -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause == null || !isFailure(cause)) {
+                        circuitBreaker.onSuccess();
+                        return cause == null ? CompletableFuture.completedFuture(r) : CompletableFuture.<T>failedFuture(cause);
+                    }
+                    circuitBreaker.onFailure(ticker.read());
+                    if (attempt >= retryAttempts || !isRetryable(method, cause)) {
+                        return CompletableFuture.<T>failedFuture(cause);
+                    }
+                    long backoff = backoffMillis(attempt);
+                    log.warn("Slack {} failed with {}, retrying in {}ms", method, cause.toString(), backoff);
+                    Counter.builder("slack.api.retries")
+                            .description("Retried Slack API calls")
+                            .tag("method", method)
+                            .register(meterRegistry)
+                            .increment();
+                    return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS))
+                            .thenCompose(v -> submit(method, channel, call, attempt + 1));
+                })
+                .thenCompose(f -> f);
+    }
+
+    /**
+     * Timed out calls fail with a {@link SocketTimeoutException}, like a timeout of the HTTP client.
+     * The timeout completes the call future itself, which cancels calls that support it.
+     */
+    private <T> CompletableFuture<T> withTimeout(String method, CompletableFuture<T> call) {
+        Duration timeout = timeout(method);
+        return call.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        return CompletableFuture.failedFuture(new SocketTimeoutException(method + " timed out after " + timeout));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    private <T> CompletableFuture<T> supplyBlocking(SlackCall<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = blockingExecutor.submit(() -> {
+            try {
+                result.complete(call.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((r, e) -> {
+            if (e != null) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private Duration timeout(String method) {
+        String timeout = methodTimeouts != null ? methodTimeouts.get(method) : null;
+        return timeout != null ? Duration.parse(timeout) : callTimeout;
+    }
+
+    /**
+     * Full jitter, a random delay up to the exponential backoff
+     */
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxRetryBackoff.toMillis(), retryBackoff.toMillis() << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * A failure of Slack or of the way to it, as opposed to an answer Slack gave
+     */
+    private static boolean isFailure(Throwable e) {
+        if (e instanceof SlackApiException slackApiException) {
+            return slackApiException.getResponse() != null && slackApiException.getResponse().code() >= 500;
+        }
+        return e instanceof IOException;
+    }
+
+    private static boolean isRetryable(String method, Throwable e) {
+        if (e instanceof ConnectException || e instanceof UnknownHostException || e instanceof NoRouteToHostException) {
+            return true;
+        }
+        return READ_ONLY_METHODS.contains(method);
+    }
+
+    @FunctionalInterface
+    public interface SlackCall<T> {
+        T call() throws IOException, SlackApiException;
+    }
+}
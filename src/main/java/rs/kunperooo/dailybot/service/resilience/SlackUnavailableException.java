@@ -0,0 +1,11 @@
+package rs.kunperooo.dailybot.service.resilience;
+
+/**
+ * Thrown without calling Slack while the circuit is open
+ */
+public class SlackUnavailableException extends RuntimeException {
+
+    public SlackUnavailableException(String method) {
+        super("Slack is unavailable, " + method + " was not sent");
+    }
+}
@@ -0,0 +1,79 @@
+package rs.kunperooo.dailybot.utils;
+
+import java.time.chrono.IsoChronology;
+
+/**
+ * Calendar arithmetic on primitives. Dates are packed as year << 9 | month << 5 | day, days are epoch days.
+ */
+class CalendarMath {
+
+    static long monthKey(long packedDate) {
+        long year = packedDate >> 9;
+        long month = (packedDate >> 5) & 0xF;
+        long day = packedDate & 0x1F;
+        return (year * 12 + month - 1) * 32 + day;
+    }
+
+    static long plusMonths(long packedDate, long months) {
+        long prolepticMonth = (packedDate >> 9) * 12 + ((packedDate >> 5) & 0xF) - 1 + months;
+        long year = Math.floorDiv(prolepticMonth, 12L);
+        int month = (int) Math.floorMod(prolepticMonth, 12L) + 1;
+        long day = Math.min(packedDate & 0x1F, lengthOfMonth(year, month));
+        return year << 9 | (long) month << 5 | day;
+    }
+
+    static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    static long toPackedDate(long epochDay) {
+        // Civil from days, see https://howardhinnant.github.io/date_algorithms.html
+        long days = epochDay + 719468;
+        long era = Math.floorDiv(days, 146097L);
+        long dayOfEra = days - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    static long toEpochDay(long packedDate) {
+        long month = (packedDate >> 5) & 0xF;
+        long day = packedDate & 0x1F;
+        long year = (packedDate >> 9) - (month <= 2 ? 1 : 0);
+        long era = Math.floorDiv(year, 400L);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    static long prolepticMonth(long packedDate) {
+        return (packedDate >> 9) * 12 + ((packedDate >> 5) & 0xF) - 1;
+    }
+
+    static int dayOfMonth(long packedDate) {
+        return (int) (packedDate & 0x1F);
+    }
+
+    static long firstDayOfMonth(long prolepticMonth) {
+        return toEpochDay(Math.floorDiv(prolepticMonth, 12L) << 9 | (Math.floorMod(prolepticMonth, 12L) + 1) << 5 | 1);
+    }
+
+    static int lengthOfProlepticMonth(long prolepticMonth) {
+        return lengthOfMonth(Math.floorDiv(prolepticMonth, 12L), (int) Math.floorMod(prolepticMonth, 12L) + 1);
+    }
+}
@@ -2,6 +2,7 @@ package rs.kunperooo.dailybot.utils;
 
 import org.springframework.data.domain.Page;
 import rs.kunperooo.dailybot.controller.dto.CheckInDataRest;
+import rs.kunperooo.dailybot.controller.dto.ScheduleRecomputeStatusRest;
 import rs.kunperooo.dailybot.controller.dto.history.CheckInHistoryRest;
 import rs.kunperooo.dailybot.controller.dto.form.MemberRest;
 import rs.kunperooo.dailybot.controller.dto.form.QuestionRest;
@@ -13,12 +14,15 @@ import rs.kunperooo.dailybot.service.dto.CheckInDataDto;
 import rs.kunperooo.dailybot.service.dto.MemberDto;
 import rs.kunperooo.dailybot.service.dto.QuestionDto;
 import rs.kunperooo.dailybot.service.dto.ScheduleDto;
+import rs.kunperooo.dailybot.service.dto.ScheduleRecomputeStatusDto;
 import rs.kunperooo.dailybot.entity.CheckInEntity;
 import rs.kunperooo.dailybot.entity.CheckInHistoryEntity;
+import rs.kunperooo.dailybot.entity.CheckInNotificationOutboxEntity;
 import rs.kunperooo.dailybot.entity.CheckInNotificationScheduleEntity;
 import rs.kunperooo.dailybot.entity.CheckInQuestionEntity;
 import rs.kunperooo.dailybot.entity.CheckInQuestionInHistoryEntity;
 import rs.kunperooo.dailybot.entity.CheckInAnswerEntity;
+import rs.kunperooo.dailybot.service.dto.OutboxMessageDto;
 import rs.kunperooo.dailybot.service.dto.SlackUserDto;
 import rs.kunperooo.dailybot.service.dto.history.CheckInHistoryDto;
 import rs.kunperooo.dailybot.service.dto.history.ShowQuestionDto;
@@ -62,11 +66,30 @@ public class Converter {
 
     public static ScheduleDto convertToDto(CheckInNotificationScheduleEntity schedule) {
         return ScheduleDto.builder()
+                .id(schedule.getId())
                 .startDate(schedule.getStartDate())
                 .time(schedule.getTime())
                 .timezone(schedule.getTimezone())
                 .frequency(schedule.getFrequency())
                 .days(schedule.getWeekDays())
+                .nextExecution(schedule.getNextExecution())
+                .spreadWindowSeconds(schedule.getSpreadWindowSeconds())
+                .recurrenceRule(schedule.getRecurrenceRule())
+                .catchUpPolicy(schedule.getCatchUpPolicy())
+                .build();
+    }
+
+    public static OutboxMessageDto convertToDto(CheckInNotificationOutboxEntity outbox) {
+        return OutboxMessageDto.builder()
+                .id(outbox.getId())
+                .historyUuid(outbox.getCheckInHistory().getUuid())
+                .checkInUuid(outbox.getCheckInHistory().getCheckIn().getUuid())
+                .owner(outbox.getCheckInHistory().getCheckIn().getOwner())
+                .memberId(outbox.getMemberId())
+                .idempotencyKey(DeliveryKey.of(outbox.getCheckInHistory().getUuid(), outbox.getMemberId()))
+                .introMessage(outbox.getCheckInHistory().getCheckIn().getIntroMessage())
+                .attempts(outbox.getAttempts())
+                .nextAttemptAt(outbox.getNextAttemptAt())
                 .build();
     }
 
@@ -204,6 +227,19 @@ public class Converter {
                 .build();
     }
 
+    public static ScheduleRecomputeStatusRest convertToRest(ScheduleRecomputeStatusDto status) {
+        return ScheduleRecomputeStatusRest.builder()
+                .running(status.isRunning())
+                .startedAt(status.getStartedAt() != null ? status.getStartedAt().toString() : null)
+                .finishedAt(status.getFinishedAt() != null ? status.getFinishedAt().toString() : null)
+                .total(status.getTotal())
+                .processed(status.getProcessed())
+                .updated(status.getUpdated())
+                .failed(status.getFailed())
+                .lastError(status.getLastError())
+                .build();
+    }
+
     public static ScheduleRest convertToRest(ScheduleDto scheduleDto) {
         if (scheduleDto == null) {
             return null;
@@ -214,6 +250,9 @@ public class Converter {
                 .timezone(scheduleDto.getTimezone() != null ? ZoneId.of(scheduleDto.getTimezone()) : null)
                 .frequency(scheduleDto.getFrequency())
                 .days(scheduleDto.getDays())
+                .spreadWindowSeconds(scheduleDto.getSpreadWindowSeconds())
+                .recurrenceRule(scheduleDto.getRecurrenceRule() != null ? scheduleDto.getRecurrenceRule().toString() : null)
+                .catchUpPolicy(scheduleDto.getCatchUpPolicy())
                 .build();
     }
 
@@ -227,6 +266,10 @@ public class Converter {
                 .timezone(scheduleRest.getTimezone() != null ? scheduleRest.getTimezone().getId() : null)
                 .frequency(scheduleRest.getFrequency())
                 .days(scheduleRest.getDays())
+                .spreadWindowSeconds(scheduleRest.getSpreadWindowSeconds())
+                .recurrenceRule(scheduleRest.getRecurrenceRule() != null && !scheduleRest.getRecurrenceRule().isBlank()
+                        ? RecurrenceRule.parse(scheduleRest.getRecurrenceRule()) : null)
+                .catchUpPolicy(scheduleRest.getCatchUpPolicy())
                 .build();
     }
 
@@ -0,0 +1,15 @@
+package rs.kunperooo.dailybot.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Idempotency key of delivering a check-in history to a member. It is derived from the pair only,
+ * so every retry, replay or node handling the same delivery arrives at the same key.
+ */
+public class DeliveryKey {
+
+    public static UUID of(UUID historyUuid, String memberId) {
+        return UUID.nameUUIDFromBytes((historyUuid + ":" + memberId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package rs.kunperooo.dailybot.utils;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class DispatchPlanner {
+
+    /**
+     * Spreads deliveries of a check-in evenly over the window. Every recipient gets its own slot,
+     * slots follow the recipients order and the check-in uuid shifts them by a deterministic phase,
+     * so check-ins starting at the same time interleave instead of colliding on the same instants.
+     *
+     * @return delivery time per recipient in the same order as recipients
+     */
+    public static List<ZonedDateTime> planDeliveries(UUID checkInUuid, ZonedDateTime start, int recipients, Duration window) {
+        List<ZonedDateTime> deliveries = new ArrayList<>(recipients);
+        long windowMillis = window == null || window.isNegative() ? 0 : window.toMillis();
+        if (windowMillis == 0 || recipients == 0) {
+            for (int i = 0; i < recipients; i++) {
+                deliveries.add(start);
+            }
+            return deliveries;
+        }
+
+        long slotMillis = Math.max(1, windowMillis / recipients);
+        long phaseMillis = Math.floorMod(checkInUuid.hashCode(), slotMillis);
+        for (int i = 0; i < recipients; i++) {
+            long offsetMillis = Math.min(windowMillis, phaseMillis + i * windowMillis / recipients);
+            deliveries.add(start.plus(Duration.ofMillis(offsetMillis)));
+        }
+        return deliveries;
+    }
+}
@@ -0,0 +1,72 @@
+package rs.kunperooo.dailybot.utils;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Dispatch queue ordered by lateness with weighted fair sharing across owners.
+ * Every owner keeps its own queue with the most late item first. Items are taken in rounds,
+ * each round serves owners starting with the one whose head is the most late and takes up to
+ * the owner's weight items from it, so a single owner cannot monopolise a batch.
+ */
+public class FairDispatchQueue<T> {
+    private static final int DEFAULT_WEIGHT = 1;
+
+    private final Function<T, String> owner;
+    private final Function<T, ZonedDateTime> dueAt;
+    private final Map<String, Integer> weights;
+    private final Comparator<T> lateness;
+    private final Map<String, PriorityQueue<T>> queues = new HashMap<>();
+    private int size;
+
+    public FairDispatchQueue(Function<T, String> owner, Function<T, ZonedDateTime> dueAt, Map<String, Integer> weights) {
+        this.owner = owner;
+        this.dueAt = dueAt;
+        this.weights = weights != null ? weights : Map.of();
+        this.lateness = Comparator.comparing(dueAt);
+    }
+
+    public FairDispatchQueue<T> addAll(Collection<T> items) {
+        for (T item : items) {
+            queues.computeIfAbsent(owner.apply(item), o -> new PriorityQueue<>(lateness)).add(item);
+            size++;
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<T> poll(int limit) {
+        List<T> result = new ArrayList<>(Math.min(limit, size));
+        while (result.size() < limit && size > 0) {
+            List<PriorityQueue<T>> round = queues.values().stream()
+                    .filter(q -> !q.isEmpty())
+                    .sorted(Comparator.comparing(q -> dueAt.apply(q.peek())))
+                    .toList();
+            for (PriorityQueue<T> queue : round) {
+                int share = Math.max(1, weights.getOrDefault(owner.apply(queue.peek()), DEFAULT_WEIGHT));
+                for (int i = 0; i < share && !queue.isEmpty() && result.size() < limit; i++) {
+                    result.add(queue.poll());
+                    size--;
+                }
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<T> pollAll() {
+        return poll(size);
+    }
+}
@@ -0,0 +1,125 @@
+package rs.kunperooo.dailybot.utils;
+
+import com.slack.api.app_backend.interactive_components.payload.BlockActionPayload;
+import com.slack.api.model.Message;
+import com.slack.api.model.block.Blocks;
+import com.slack.api.model.block.LayoutBlock;
+import com.slack.api.model.block.composition.BlockCompositions;
+import com.slack.api.model.block.element.BlockElements;
+import rs.kunperooo.dailybot.service.dto.OutboxMessageDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static rs.kunperooo.dailybot.utils.ActionId.FINISH_CHECK_IN;
+import static rs.kunperooo.dailybot.utils.ActionId.START_CHECK_IN;
+
+/**
+ * Blocks and metadata of the check-in notifications sent to members.
+ * Every start button carries the check-in history UUID as its value, so a message can hold the
+ * buttons of several check-ins, the metadata is kept for messages sent before that.
+ */
+public class NotificationMessages {
+    public static final String EVENT_TYPE = "notify_user_with_check_in";
+    public static final String COALESCED_EVENT_TYPE = "notify_user_with_check_ins";
+    public static final String HISTORY_UUID_KEY = "checkInHistoryUuid";
+    public static final String HISTORY_UUIDS_KEY = "checkInHistoryUuids";
+
+    public static List<LayoutBlock> buildBlocks(String introMessage, UUID historyUuid) {
+        return List.of(
+                Blocks.section(section -> section.text(BlockCompositions.markdownText(introMessage))),
+                startActions(historyUuid)
+        );
+    }
+
+    public static Message.Metadata buildMetadata(UUID historyUuid) {
+        return Message.Metadata.builder()
+                .eventType(EVENT_TYPE)
+                .eventPayload(Map.of(HISTORY_UUID_KEY, historyUuid.toString()))
+                .build();
+    }
+
+    /**
+     * One message for several notifications of the same member, an intro and a start button per check-in
+     */
+    public static List<LayoutBlock> buildCoalescedBlocks(List<OutboxMessageDto> messages) {
+        List<LayoutBlock> blocks = new ArrayList<>(messages.size() * 3);
+        for (OutboxMessageDto message : messages) {
+            if (!blocks.isEmpty()) {
+                blocks.add(Blocks.divider());
+            }
+            blocks.add(Blocks.section(section -> section.text(BlockCompositions.markdownText(message.getIntroMessage()))));
+            blocks.add(startActions(message.getHistoryUuid()));
+        }
+        return blocks;
+    }
+
+    public static Message.Metadata buildCoalescedMetadata(List<OutboxMessageDto> messages) {
+        List<String> historyUuids = messages.stream()
+                .map(m -> m.getHistoryUuid().toString())
+                .toList();
+        return Message.Metadata.builder()
+                .eventType(COALESCED_EVENT_TYPE)
+                .eventPayload(Map.of(HISTORY_UUID_KEY, historyUuids.get(0), HISTORY_UUIDS_KEY, historyUuids))
+                .build();
+    }
+
+    /**
+     * Outro sent back after a check-in was submitted. The edit button carries the history UUID, so it also works
+     * when the outro is posted as a new message instead of replacing the original one.
+     */
+    public static List<LayoutBlock> buildOutroBlocks(String outroMessage, UUID historyUuid) {
+        return List.of(
+                Blocks.section(section -> section.text(BlockCompositions.markdownText(outroMessage))),
+                Blocks.actions(actions -> actions
+                        .elements(List.of(
+                                BlockElements.button(b -> b
+                                        .text(BlockCompositions.plainText("Edit"))
+                                        .actionId(FINISH_CHECK_IN.name())
+                                        .value(historyUuid != null ? historyUuid.toString() : "finish"))
+                        ))
+                )
+        );
+    }
+
+    /**
+     * @return history UUID from the clicked button, or from the message metadata for buttons without one
+     */
+    public static String historyUuid(BlockActionPayload payload) {
+        String value = payload.getActions().get(0).getValue();
+        if (isUuid(value)) {
+            return value;
+        }
+        return payload.getMessage().getMetadata().getEventPayload().get(HISTORY_UUID_KEY).toString();
+    }
+
+    public static boolean isCoalesced(BlockActionPayload payload) {
+        return payload.getMessage() != null && payload.getMessage().getMetadata() != null
+                && COALESCED_EVENT_TYPE.equals(payload.getMessage().getMetadata().getEventType());
+    }
+
+    private static LayoutBlock startActions(UUID historyUuid) {
+        return Blocks.actions(actions -> actions
+                .elements(List.of(
+                        BlockElements.button(b -> b
+                                .text(BlockCompositions.plainText("Yes"))
+                                .actionId(START_CHECK_IN.name())
+                                .value(historyUuid.toString()))
+                ))
+        );
+    }
+
+    private static boolean isUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return false;
+        }
+        try {
+            UUID.fromString(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
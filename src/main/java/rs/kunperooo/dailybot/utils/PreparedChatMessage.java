@@ -0,0 +1,69 @@
+package rs.kunperooo.dailybot.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.slack.api.model.Message;
+import com.slack.api.model.block.LayoutBlock;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * chat.postMessage JSON body rendered once and shared by all recipients. Only the channel is written
+ * per request, in front of the pre-encoded blocks and metadata, so sending to many members neither
+ * serializes the block tree again nor copies it.
+ */
+public class PreparedChatMessage {
+    public static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final byte[] CHANNEL_PREFIX = "{\"channel\":".getBytes(StandardCharsets.UTF_8);
+
+    private final Gson gson;
+
+    /**
+     * Encoded fields after the channel, starting with a comma and closing the JSON object
+     */
+    private final byte[] fields;
+
+    private PreparedChatMessage(Gson gson, byte[] fields) {
+        this.gson = gson;
+        this.fields = fields;
+    }
+
+    /**
+     * @param gson Slack SDK snake case Gson, so blocks and metadata are encoded like the SDK does
+     */
+    public static PreparedChatMessage of(Gson gson, List<LayoutBlock> blocks, Message.Metadata metadata) {
+        JsonObject body = new JsonObject();
+        body.add("blocks", gson.toJsonTree(blocks));
+        if (metadata != null) {
+            body.add("metadata", gson.toJsonTree(metadata));
+        }
+        String json = gson.toJson(body);
+        return new PreparedChatMessage(gson, ("," + json.substring(1)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public RequestBody requestBody(String channelId) {
+        byte[] channel = gson.toJson(channelId).getBytes(StandardCharsets.UTF_8);
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return JSON;
+            }
+
+            @Override
+            public long contentLength() {
+                return CHANNEL_PREFIX.length + channel.length + fields.length;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                sink.write(CHANNEL_PREFIX).write(channel).write(fields);
+            }
+        };
+    }
+}
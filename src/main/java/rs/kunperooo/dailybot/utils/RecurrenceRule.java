@@ -0,0 +1,359 @@
+package rs.kunperooo.dailybot.utils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiled subset of an RFC 5545 recurrence rule, anchored at the schedule start date and time.
+ * <p>
+ * Supported parts are FREQ (DAILY, WEEKLY or MONTHLY), INTERVAL, BYDAY (ordinals like 2TU or -1FR for MONTHLY),
+ * BYMONTHDAY, UNTIL or COUNT, and EXDATE with a comma separated list of excluded dates, for example
+ * {@code FREQ=MONTHLY;BYDAY=2TU;EXDATE=20251209,20260113}. Parts may be separated by semicolons or new lines
+ * and an {@code RRULE:} prefix is ignored.
+ * <p>
+ * The text is parsed once into masks and arrays, so looking up an occurrence is plain arithmetic and does not
+ * walk day by day. Instances are immutable apart from the memoized end of a COUNT bounded rule.
+ */
+public class RecurrenceRule {
+    public static final long NOT_FOUND = Long.MIN_VALUE;
+
+    private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+    // Bits of days 1, 8, 15, 22 and 29 of a month
+    private static final int EVERY_WEEK = 1 | 1 << 7 | 1 << 14 | 1 << 21 | 1 << 28;
+    // A whole Gregorian cycle, no month pattern can appear for the first time after it
+    private static final int MAX_MONTHS_SCANNED = 400 * 12;
+
+    private enum Unit {
+        DAILY, WEEKLY, MONTHLY
+    }
+
+    private record CountLimit(long startDay, long lastDay) {
+    }
+
+    private final String source;
+    private final Unit unit;
+    private final int interval;
+    private final int weekDays;
+    private final int[] ordinals;
+    private final int[] ordinalDayIndexes;
+    private final int[] monthDays;
+    private final long untilDay;
+    private final int count;
+    private final long[] excludedDays;
+
+    private volatile CountLimit countLimit;
+
+    private RecurrenceRule(String source, Unit unit, int interval, int weekDays, int[] ordinals, int[] ordinalDayIndexes,
+                           int[] monthDays, long untilDay, int count, long[] excludedDays) {
+        this.source = source;
+        this.unit = unit;
+        this.interval = interval;
+        this.weekDays = weekDays;
+        this.ordinals = ordinals;
+        this.ordinalDayIndexes = ordinalDayIndexes;
+        this.monthDays = monthDays;
+        this.untilDay = untilDay;
+        this.count = count;
+        this.excludedDays = excludedDays;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the rule is malformed or uses unsupported parts
+     */
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is empty");
+        }
+        String source = rule.trim();
+        String body = source.regionMatches(true, 0, "RRULE:", 0, 6) ? source.substring(6) : source;
+
+        Unit unit = null;
+        int interval = 1;
+        int weekDays = WeekDayMask.EMPTY;
+        List<int[]> ordinalDays = new ArrayList<>();
+        int[] monthDays = new int[0];
+        long untilDay = Long.MAX_VALUE;
+        int count = 0;
+        long[] excludedDays = new long[0];
+
+        for (String part : body.split("[;\\r\\n]+")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int separator = indexOfSeparator(part);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String name = part.substring(0, separator).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(separator + 1).trim().toUpperCase(Locale.ROOT);
+            switch (name) {
+                case "FREQ" -> unit = parseUnit(value);
+                case "INTERVAL" -> interval = parsePositive(name, value);
+                case "BYDAY" -> {
+                    for (String day : value.split(",")) {
+                        if (day.length() < 2) {
+                            throw new IllegalArgumentException("Unknown week day: " + day);
+                        }
+                        int dayIndex = parseDayIndex(day.substring(day.length() - 2));
+                        String ordinal = day.substring(0, day.length() - 2);
+                        if (ordinal.isEmpty()) {
+                            weekDays |= 1 << dayIndex;
+                        } else {
+                            ordinalDays.add(new int[]{parseOrdinal(ordinal, 5), dayIndex});
+                        }
+                    }
+                }
+                case "BYMONTHDAY" -> monthDays = Arrays.stream(value.split(","))
+                        .mapToInt(day -> parseOrdinal(day, 31))
+                        .toArray();
+                case "UNTIL" -> untilDay = parseDate(value).toEpochDay();
+                case "COUNT" -> count = parsePositive(name, value);
+                case "EXDATE" -> excludedDays = Arrays.stream(value.split(","))
+                        .mapToLong(date -> parseDate(date.trim()).toEpochDay())
+                        .sorted()
+                        .toArray();
+                default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+            }
+        }
+
+        if (unit == null) {
+            throw new IllegalArgumentException("Recurrence rule must define FREQ");
+        }
+        if (count > 0 && untilDay != Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Recurrence rule must not define both UNTIL and COUNT");
+        }
+        if (unit != Unit.MONTHLY && (!ordinalDays.isEmpty() || monthDays.length > 0)) {
+            throw new IllegalArgumentException("BYDAY ordinals and BYMONTHDAY are only supported with FREQ=MONTHLY");
+        }
+
+        return new RecurrenceRule(source, unit, interval, weekDays,
+                ordinalDays.stream().mapToInt(day -> day[0]).toArray(),
+                ordinalDays.stream().mapToInt(day -> day[1]).toArray(),
+                monthDays, untilDay, count, excludedDays);
+    }
+
+    /**
+     * @return first occurrence on or after the given epoch day as an epoch day, or {@link #NOT_FOUND} when the
+     * rule has ended
+     */
+    public long nextDate(long fromDay, long startDay) {
+        long lastDay = lastDay(startDay);
+        long day = Math.max(fromDay, startDay);
+        // Every round either returns or steps over one excluded date
+        while (true) {
+            day = nextCandidate(day, startDay);
+            if (day == NOT_FOUND || day > lastDay) {
+                return NOT_FOUND;
+            }
+            if (Arrays.binarySearch(excludedDays, day) < 0) {
+                return day;
+            }
+            day++;
+        }
+    }
+
+    private long lastDay(long startDay) {
+        if (count == 0) {
+            return untilDay;
+        }
+        CountLimit limit = countLimit;
+        if (limit == null || limit.startDay() != startDay) {
+            // COUNT bounds the rule before exclusions, its end only depends on the start date
+            long lastDay = NOT_FOUND;
+            long day = startDay;
+            for (int i = 0; i < count; i++) {
+                long candidate = nextCandidate(day, startDay);
+                if (candidate == NOT_FOUND) {
+                    break;
+                }
+                lastDay = candidate;
+                day = candidate + 1;
+            }
+            limit = new CountLimit(startDay, lastDay == NOT_FOUND ? startDay - 1 : lastDay);
+            countLimit = limit;
+        }
+        return limit.lastDay();
+    }
+
+    private long nextCandidate(long day, long startDay) {
+        return switch (unit) {
+            case DAILY -> nextDailyCandidate(day, startDay);
+            case WEEKLY -> nextWeeklyCandidate(day, startDay);
+            case MONTHLY -> nextMonthlyCandidate(day, startDay);
+        };
+    }
+
+    private long nextDailyCandidate(long day, long startDay) {
+        long candidate = startDay + Math.floorDiv(day - startDay + interval - 1, interval) * interval;
+        if (weekDays == WeekDayMask.EMPTY) {
+            return candidate;
+        }
+        // Steps of the interval repeat their days of week after at most 7 steps
+        for (int i = 0; i < 7; i++, candidate += interval) {
+            if ((weekDays & 1 << WeekDayMask.dayIndex(candidate)) != 0) {
+                return candidate;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private long nextWeeklyCandidate(long day, long startDay) {
+        int days = weekDays != WeekDayMask.EMPTY ? weekDays : 1 << WeekDayMask.dayIndex(startDay);
+        long startMonday = startDay - WeekDayMask.dayIndex(startDay);
+        long week = (day - startMonday) / 7;
+        if (week % interval == 0) {
+            int rest = days >>> WeekDayMask.dayIndex(day);
+            if (rest != 0) {
+                return day + Integer.numberOfTrailingZeros(rest);
+            }
+        }
+        long nextWeek = (week / interval + 1) * interval;
+        return startMonday + nextWeek * 7 + Integer.numberOfTrailingZeros(days);
+    }
+
+    private long nextMonthlyCandidate(long day, long startDay) {
+        long startDate = CalendarMath.toPackedDate(startDay);
+        long startMonth = CalendarMath.prolepticMonth(startDate);
+        long date = CalendarMath.toPackedDate(day);
+        long month = CalendarMath.prolepticMonth(date);
+
+        long eligibleMonth = startMonth + Math.floorDiv(month - startMonth + interval - 1, interval) * interval;
+        int dayOfMonth = eligibleMonth == month ? CalendarMath.dayOfMonth(date) : 1;
+        for (long scanned = 0; scanned < MAX_MONTHS_SCANNED; scanned += interval) {
+            int rest = daysInMonth(eligibleMonth, CalendarMath.dayOfMonth(startDate)) >>> (dayOfMonth - 1);
+            if (rest != 0) {
+                return CalendarMath.firstDayOfMonth(eligibleMonth) + dayOfMonth - 1 + Integer.numberOfTrailingZeros(rest);
+            }
+            eligibleMonth += interval;
+            dayOfMonth = 1;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @return days of the month matching the rule, bit 0 is the first day of the month
+     */
+    private int daysInMonth(long month, int startDayOfMonth) {
+        int length = CalendarMath.lengthOfProlepticMonth(month);
+        int firstDayIndex = WeekDayMask.dayIndex(CalendarMath.firstDayOfMonth(month));
+
+        boolean byDay = weekDays != WeekDayMask.EMPTY || ordinals.length > 0;
+        int byDayDays = 0;
+        for (int dayIndex = 0; dayIndex < 7; dayIndex++) {
+            if ((weekDays & 1 << dayIndex) != 0) {
+                byDayDays |= EVERY_WEEK << Math.floorMod(dayIndex - firstDayIndex, 7);
+            }
+        }
+        for (int i = 0; i < ordinals.length; i++) {
+            int first = Math.floorMod(ordinalDayIndexes[i] - firstDayIndex, 7);
+            int day = ordinals[i] > 0
+                    ? first + 7 * (ordinals[i] - 1)
+                    : first + 7 * ((length - 1 - first) / 7) + 7 * (ordinals[i] + 1);
+            byDayDays |= bit(day, length);
+        }
+
+        int byMonthDayDays = 0;
+        for (int monthDay : monthDays) {
+            byMonthDayDays |= bit(monthDay > 0 ? monthDay - 1 : length + monthDay, length);
+        }
+
+        if (byDay && monthDays.length > 0) {
+            return byDayDays & byMonthDayDays & lengthMask(length);
+        }
+        if (byDay) {
+            return byDayDays & lengthMask(length);
+        }
+        if (monthDays.length > 0) {
+            return byMonthDayDays;
+        }
+        return bit(startDayOfMonth - 1, length);
+    }
+
+    private static int bit(int day, int length) {
+        return day >= 0 && day < length ? 1 << day : 0;
+    }
+
+    private static int lengthMask(int length) {
+        return (int) ((1L << length) - 1);
+    }
+
+    private static int indexOfSeparator(String part) {
+        int equals = part.indexOf('=');
+        int colon = part.indexOf(':');
+        return equals < 0 ? colon : colon < 0 ? equals : Math.min(equals, colon);
+    }
+
+    private static Unit parseUnit(String value) {
+        try {
+            return Unit.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported recurrence frequency: " + value);
+        }
+    }
+
+    private static int parseDayIndex(String code) {
+        for (int i = 0; i < DAY_CODES.length; i++) {
+            if (DAY_CODES[i].equals(code)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown week day: " + code);
+    }
+
+    private static int parseOrdinal(String value, int limit) {
+        int ordinal;
+        try {
+            ordinal = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed number in recurrence rule: " + value);
+        }
+        if (ordinal == 0 || Math.abs(ordinal) > limit) {
+            throw new IllegalArgumentException("Value out of range in recurrence rule: " + value);
+        }
+        return ordinal;
+    }
+
+    private static int parsePositive(String name, String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(name + " must be a positive number: " + value);
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            // Date-time values are cut to their date, the schedule time applies to every occurrence
+            return LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed date in recurrence rule: " + value);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RecurrenceRule other && source.equals(other.source);
+    }
+
+    @Override
+    public int hashCode() {
+        return source.hashCode();
+    }
+
+    /**
+     * @return the rule as it was written
+     */
+    @Override
+    public String toString() {
+        return source;
+    }
+}
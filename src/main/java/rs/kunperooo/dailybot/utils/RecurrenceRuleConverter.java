@@ -0,0 +1,21 @@
+package rs.kunperooo.dailybot.utils;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Compiles the stored rule when the schedule is loaded, so it is never parsed again on the scheduling path.
+ */
+@Converter
+public class RecurrenceRuleConverter implements AttributeConverter<RecurrenceRule, String> {
+
+    @Override
+    public String convertToDatabaseColumn(RecurrenceRule attribute) {
+        return attribute != null ? attribute.toString() : null;
+    }
+
+    @Override
+    public RecurrenceRule convertToEntityAttribute(String dbData) {
+        return dbData == null || dbData.isBlank() ? null : RecurrenceRule.parse(dbData);
+    }
+}
@@ -4,162 +4,221 @@ import lombok.extern.slf4j.Slf4j;
 import rs.kunperooo.dailybot.entity.Frequency;
 import rs.kunperooo.dailybot.service.dto.ScheduleDto;
 
-import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Slf4j
 public class ScheduleUtils {
     public static ZonedDateTime calculateNextExecution(ScheduleDto schedule) {
+        return calculateNextExecution(schedule, ZonedDateTime.now());
+    }
+
+    /**
+     * Same as {@link #calculateNextExecution(ScheduleDto)} but relative to the given moment instead of the current time.
+     */
+    public static ZonedDateTime calculateNextExecution(ScheduleDto schedule, ZonedDateTime currentDateTime) {
+        return calculateNextExecution(schedule, currentDateTime.toInstant(), ZoneId::of);
+    }
+
+    /**
+     * @param zoneResolver resolves the schedule's timezone, lets callers reuse already resolved zones and their rules
+     */
+    public static ZonedDateTime calculateNextExecution(ScheduleDto schedule, Instant currentInstant,
+                                                       Function<String, ZoneId> zoneResolver) {
         if (schedule.getStartDate() == null || schedule.getTime() == null || schedule.getTimezone() == null) {
             log.debug("Cannot calculate next execution - missing required fields");
             return null;
         }
 
-        if (schedule.getDays() == null || schedule.getDays().isEmpty()) {
+        RecurrenceRule rule = schedule.getRecurrenceRule();
+        if (rule == null && (schedule.getDays() == null || schedule.getDays().isEmpty())) {
             log.debug("Cannot calculate next execution - no week days specified");
             return null;
         }
 
-        LocalDate startDate = schedule.getStartDate();
         LocalTime time = schedule.getTime();
-        ZoneId timezone = ZoneId.of(schedule.getTimezone());
-        List<DayOfWeek> weekDays = schedule.getDays();
+        ZoneId timezone = zoneResolver.apply(schedule.getTimezone());
+        int weekDays = rule == null ? WeekDayMask.of(schedule.getDays()) : WeekDayMask.EMPTY;
+        long startDay = schedule.getStartDate().toEpochDay();
 
         // Get current date/time in the schedule's timezone
-        ZonedDateTime now = ZonedDateTime.now(timezone);
-        LocalDate today = now.toLocalDate();
-        LocalTime currentTime = now.toLocalTime();
-
-        // Sort week days for easier processing
-        Set<DayOfWeek> sortedDays = new TreeSet<>(weekDays);
+        ZonedDateTime now = ZonedDateTime.ofInstant(currentInstant, timezone);
+        long today = now.toLocalDate().toEpochDay();
 
         // Start from today or startDate, whichever is later
-        LocalDate searchDate = today.isBefore(startDate) ? startDate : today;
+        long searchDay = Math.max(today, startDay);
 
         // Get frequency, default to BI_WEEKLY if not specified
         Frequency frequency = schedule.getFrequency() != null ? schedule.getFrequency() : Frequency.BI_WEEKLY;
 
-        // Find the next occurrence based on frequency
-        LocalDate nextDate = findNextDateByFrequency(searchDate, sortedDays, startDate, frequency);
+        // Find the next occurrence based on the recurrence rule or frequency
+        long nextDay = findNextDate(searchDay, rule, weekDays, startDay, frequency);
 
         // If we found a date today but time has passed, try next occurrence
-        if (nextDate != null && nextDate.equals(today) && time.isBefore(currentTime)) {
-            nextDate = findNextDateByFrequency(searchDate.plusDays(1), sortedDays, startDate, frequency);
+        if (nextDay == today && time.isBefore(now.toLocalTime())) {
+            nextDay = findNextDate(searchDay + 1, rule, weekDays, startDay, frequency);
         }
 
-        if (nextDate == null) {
+        if (nextDay == NOT_FOUND) {
             log.debug("Could not find next execution date");
             return null;
         }
 
         // Combine date and time in the specified timezone
-        return ZonedDateTime.of(nextDate, time, timezone);
+        return ZonedDateTime.of(LocalDate.ofEpochDay(nextDay), time, timezone);
     }
 
-    private static LocalDate findNextDateByFrequency(LocalDate fromDate, Set<DayOfWeek> weekDays, LocalDate startDate, Frequency frequency) {
-        switch (frequency) {
-            case WEEKLY:
-                return findNextWeeklyDate(fromDate, weekDays);
-            case BI_WEEKLY:
-                return findNextBiWeeklyDate(fromDate, weekDays, startDate);
-            case MONTHLY:
-                return findNextMonthlyDate(fromDate, weekDays, startDate);
-            default:
-                log.warn("Unknown frequency: {}, defaulting to BI_WEEKLY", frequency);
-                return findNextBiWeeklyDate(fromDate, weekDays, startDate);
+    /**
+     * Lazy stream of executions after the given moment, the first element is what
+     * {@link #calculateNextExecution(ScheduleDto, ZonedDateTime)} returns. Every further element is derived from the
+     * previous occurrence in constant time. The stream is empty when the schedule cannot be calculated and
+     * otherwise infinite, so callers are expected to limit it.
+     */
+    public static Stream<ZonedDateTime> occurrences(ScheduleDto schedule, ZonedDateTime currentDateTime) {
+        return occurrences(schedule, currentDateTime.toInstant(), ZoneId::of);
+    }
+
+    public static Stream<ZonedDateTime> occurrences(ScheduleDto schedule, Instant currentInstant,
+                                                    Function<String, ZoneId> zoneResolver) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(occurrenceIterator(schedule, currentInstant, zoneResolver),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    public static Iterator<ZonedDateTime> occurrenceIterator(ScheduleDto schedule, ZonedDateTime currentDateTime) {
+        return occurrenceIterator(schedule, currentDateTime.toInstant(), ZoneId::of);
+    }
+
+    public static Iterator<ZonedDateTime> occurrenceIterator(ScheduleDto schedule, Instant currentInstant,
+                                                             Function<String, ZoneId> zoneResolver) {
+        ZonedDateTime first = calculateNextExecution(schedule, currentInstant, zoneResolver);
+        if (first == null) {
+            return Collections.emptyIterator();
         }
+        Frequency frequency = schedule.getFrequency() != null ? schedule.getFrequency() : Frequency.BI_WEEKLY;
+        RecurrenceRule rule = schedule.getRecurrenceRule();
+        int weekDays = rule == null ? WeekDayMask.of(schedule.getDays()) : WeekDayMask.EMPTY;
+        return new OccurrenceIterator(first, rule, weekDays, schedule.getStartDate().toEpochDay(), frequency, schedule.getTime());
     }
 
-    private static LocalDate findNextWeeklyDate(LocalDate fromDate, Set<DayOfWeek> weekDays) {
-        // For weekly, look within the next 7 days
-        for (int i = 0; i < 7; i++) {
-            LocalDate candidate = fromDate.plusDays(i);
-            DayOfWeek dayOfWeek = candidate.getDayOfWeek();
+    private static class OccurrenceIterator implements Iterator<ZonedDateTime> {
+        private final RecurrenceRule rule;
+        private final int weekDays;
+        private final long startDay;
+        private final Frequency frequency;
+        private final LocalTime time;
+        private final ZoneId timezone;
+        private ZonedDateTime next;
+
+        private OccurrenceIterator(ZonedDateTime first, RecurrenceRule rule, int weekDays, long startDay, Frequency frequency,
+                                   LocalTime time) {
+            this.next = first;
+            this.rule = rule;
+            this.weekDays = weekDays;
+            this.startDay = startDay;
+            this.frequency = frequency;
+            this.time = time;
+            this.timezone = first.getZone();
+        }
 
-            if (weekDays.contains(dayOfWeek)) {
-                return candidate;
-            }
+        @Override
+        public boolean hasNext() {
+            return next != null;
         }
 
-        return null;
+        @Override
+        public ZonedDateTime next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            ZonedDateTime current = next;
+            long nextDay = findNextDate(current.toLocalDate().toEpochDay() + 1, rule, weekDays, startDay, frequency);
+            next = nextDay == NOT_FOUND ? null : ZonedDateTime.of(LocalDate.ofEpochDay(nextDay), time, timezone);
+            return current;
+        }
     }
 
-    private static LocalDate findNextBiWeeklyDate(LocalDate fromDate, Set<DayOfWeek> weekDays, LocalDate startDate) {
-        // Calculate weeks since start date
-        long weeksSinceStart = ChronoUnit.WEEKS.between(startDate, fromDate);
+    private static final long NOT_FOUND = RecurrenceRule.NOT_FOUND;
 
-        // For bi-weekly, we want to start from the bi-weekly period
-        long biWeeklyPeriodsSinceStart = weeksSinceStart / 2;
-        LocalDate periodStartDate = startDate.plusWeeks(biWeeklyPeriodsSinceStart * 2);
+    private static long findNextDate(long fromDay, RecurrenceRule rule, int weekDays, long startDay, Frequency frequency) {
+        return rule != null ? rule.nextDate(fromDay, startDay) : findNextDateByFrequency(fromDay, weekDays, startDay, frequency);
+    }
 
-        // Check current period first
-        LocalDate nextDate = findNextDayInPeriod(periodStartDate, fromDate, weekDays, 14);
-        if (nextDate != null) {
-            return nextDate;
+    /**
+     * Next execution date as an epoch day. Works on epoch days and packed year/month/day values only, so
+     * nothing is allocated and no day is visited one by one: every frequency resolves to at most two
+     * period lookups and each lookup is a single rotation of the week day mask.
+     */
+    private static long findNextDateByFrequency(long fromDay, int weekDays, long startDay, Frequency frequency) {
+        switch (frequency) {
+            case WEEKLY:
+                return findNextWeeklyDate(fromDay, weekDays);
+            case BI_WEEKLY:
+                return findNextBiWeeklyDate(fromDay, weekDays, startDay);
+            case MONTHLY:
+                return findNextMonthlyDate(fromDay, weekDays, startDay);
+            default:
+                log.warn("Unknown frequency: {}, defaulting to BI_WEEKLY", frequency);
+                return findNextBiWeeklyDate(fromDay, weekDays, startDay);
         }
+    }
 
-        // If not found in current period, try next bi-weekly period
-        return findNextDayInPeriod(periodStartDate.plusWeeks(2), periodStartDate.plusWeeks(2), weekDays, 14);
+    private static long findNextWeeklyDate(long fromDay, int weekDays) {
+        return findNextDayInPeriod(fromDay, fromDay + 6, weekDays);
     }
 
-    private static LocalDate findNextMonthlyDate(LocalDate fromDate, Set<DayOfWeek> weekDays, LocalDate startDate) {
-        // Calculate months since start date
-        long monthsSinceStart = ChronoUnit.MONTHS.between(startDate, fromDate);
-        
-        // For monthly, we want to find the next occurrence in the current or next month period
-        LocalDate periodStartDate = startDate.plusMonths(monthsSinceStart);
-        
-        // Check current month period first
-        LocalDate nextDate = findNextDayInMonthlyPeriod(periodStartDate, fromDate, weekDays);
-        if (nextDate != null) {
-            return nextDate;
+    private static long findNextBiWeeklyDate(long fromDay, int weekDays, long startDay) {
+        // Whole weeks since start date, rounded down to the bi-weekly period
+        long weeksSinceStart = (fromDay - startDay) / 7;
+        long periodStartDay = startDay + (weeksSinceStart / 2) * 14;
+
+        // The period is searched for 14 days from the later of the period start and the from date
+        long searchDay = Math.max(fromDay, periodStartDay);
+        long nextDay = findNextDayInPeriod(searchDay, searchDay + 13, weekDays);
+        if (nextDay != NOT_FOUND) {
+            return nextDay;
         }
-        
-        // If not found in current month, try next month period
-        return findNextDayInMonthlyPeriod(periodStartDate.plusMonths(1), periodStartDate.plusMonths(1), weekDays);
+
+        long nextPeriodStartDay = periodStartDay + 14;
+        return findNextDayInPeriod(nextPeriodStartDay, nextPeriodStartDay + 13, weekDays);
     }
 
-    private static LocalDate findNextDayInPeriod(LocalDate periodStart, LocalDate fromDate, Set<DayOfWeek> weekDays, int periodDays) {
-        LocalDate searchDate = fromDate.isBefore(periodStart) ? periodStart : fromDate;
+    private static long findNextMonthlyDate(long fromDay, int weekDays, long startDay) {
+        long startDate = CalendarMath.toPackedDate(startDay);
+        long fromDate = CalendarMath.toPackedDate(fromDay);
 
-        // Look within the specified period days
-        for (int i = 0; i < periodDays; i++) {
-            LocalDate candidate = searchDate.plusDays(i);
-            DayOfWeek dayOfWeek = candidate.getDayOfWeek();
+        // Same rounding as ChronoUnit.MONTHS: a month only counts once its day of month is reached
+        long monthsSinceStart = (CalendarMath.monthKey(fromDate) - CalendarMath.monthKey(startDate)) / 32;
+        long periodStartDate = CalendarMath.plusMonths(startDate, monthsSinceStart);
 
-            if (weekDays.contains(dayOfWeek)) {
-                return candidate;
-            }
+        // Check current month period first
+        long periodStartDay = CalendarMath.toEpochDay(periodStartDate);
+        long nextDay = findNextDayInPeriod(Math.max(fromDay, periodStartDay), monthlyPeriodEnd(periodStartDate), weekDays);
+        if (nextDay != NOT_FOUND) {
+            return nextDay;
         }
 
-        return null;
+        // If not found in current month, try next month period
+        long nextPeriodStartDate = CalendarMath.plusMonths(periodStartDate, 1);
+        return findNextDayInPeriod(CalendarMath.toEpochDay(nextPeriodStartDate), monthlyPeriodEnd(nextPeriodStartDate), weekDays);
     }
 
-    private static LocalDate findNextDayInMonthlyPeriod(LocalDate periodStart, LocalDate fromDate, Set<DayOfWeek> weekDays) {
-        LocalDate searchDate = fromDate.isBefore(periodStart) ? periodStart : fromDate;
-        
-        // Get the end of the month for the period start
-        LocalDate periodEnd = periodStart.plusMonths(1).minusDays(1);
-        
-        // Look within the current month
-        LocalDate candidate = searchDate;
-        while (!candidate.isAfter(periodEnd)) {
-            DayOfWeek dayOfWeek = candidate.getDayOfWeek();
-            
-            if (weekDays.contains(dayOfWeek)) {
-                return candidate;
-            }
-            
-            candidate = candidate.plusDays(1);
-        }
+    private static long findNextDayInPeriod(long fromDay, long lastDay, int weekDays) {
+        long candidate = fromDay + WeekDayMask.daysUntilNext(weekDays, WeekDayMask.dayIndex(fromDay));
+        return candidate <= lastDay ? candidate : NOT_FOUND;
+    }
 
-        return null;
+    private static long monthlyPeriodEnd(long periodStartDate) {
+        return CalendarMath.toEpochDay(CalendarMath.plusMonths(periodStartDate, 1)) - 1;
     }
 }
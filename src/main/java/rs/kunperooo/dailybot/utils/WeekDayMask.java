@@ -0,0 +1,46 @@
+package rs.kunperooo.dailybot.utils;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+/**
+ * Week days packed into the lowest 7 bits of an int, bit 0 is Monday and bit 6 is Sunday.
+ */
+public class WeekDayMask {
+    public static final int EMPTY = 0;
+    public static final int ALL = 0x7F;
+
+    public static int of(List<DayOfWeek> days) {
+        int mask = EMPTY;
+        for (int i = 0; i < days.size(); i++) {
+            mask |= bit(days.get(i));
+        }
+        return mask;
+    }
+
+    public static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    public static boolean contains(int mask, DayOfWeek day) {
+        return (mask & bit(day)) != 0;
+    }
+
+    /**
+     * @param dayIndex day of week of the starting day, 0 for Monday up to 6 for Sunday
+     * @return days from the starting day to the first day in the mask (0 when the starting day itself is in it),
+     * or -1 when the mask is empty
+     */
+    public static int daysUntilNext(int mask, int dayIndex) {
+        int rotated = ((mask >>> dayIndex) | (mask << (7 - dayIndex))) & ALL;
+        return rotated == EMPTY ? -1 : Integer.numberOfTrailingZeros(rotated);
+    }
+
+    /**
+     * @return day of week index, 0 for Monday up to 6 for Sunday, of the given epoch day
+     */
+    public static int dayIndex(long epochDay) {
+        // 1970-01-01 was a Thursday
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+}
@@ -104,6 +104,11 @@ CREATE TABLE check_in_notification_schedule
     created_at        TIMESTAMP,
     updated_at        TIMESTAMP,
     week_days         VARCHAR(100),
+    lease_owner       VARCHAR(100),
+    lease_expires_at  TIMESTAMP WITH TIME ZONE,
+    spread_window_seconds INTEGER,
+    recurrence_rule   VARCHAR(500),
+    catch_up_policy   VARCHAR(10),
     CONSTRAINT CHECK_IN_NOTIFICATION_SCHEDULE_CHECK_IN_ID_FK FOREIGN KEY (check_in_id)
         REFERENCES check_in (id)
 );
@@ -111,6 +116,33 @@ CREATE TABLE check_in_notification_schedule
 CREATE INDEX idx_check_in_notification_schedule_check_in_id ON check_in_notification_schedule (check_in_id);
 CREATE INDEX idx_check_in_notification_schedule_next_execution ON check_in_notification_schedule (next_execution);
 
+CREATE TABLE check_in_notification_outbox
+(
+    id                  BIGSERIAL PRIMARY KEY,
+    check_in_history_id BIGINT      NOT NULL,
+    member_id           VARCHAR(50) NOT NULL,
+    status              VARCHAR(20) NOT NULL,
+    attempts            INTEGER     NOT NULL DEFAULT 0,
+    next_attempt_at     TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error          VARCHAR(500),
+    lease_owner         VARCHAR(100),
+    lease_expires_at    TIMESTAMP WITH TIME ZONE,
+    created_at          TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    delivered_at        TIMESTAMP,
+    CONSTRAINT CHECK_IN_NOTIFICATION_OUTBOX_HISTORY_ID_FK FOREIGN KEY (check_in_history_id)
+        REFERENCES check_in_history (id),
+    UNIQUE (check_in_history_id, member_id)
+);
+
+CREATE INDEX idx_check_in_notification_outbox_status_next_attempt ON check_in_notification_outbox (status, next_attempt_at);
+
+CREATE TABLE check_in_delivery_ledger
+(
+    idempotency_key UUID PRIMARY KEY,
+    delivered_at    TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_check_in_delivery_ledger_delivered_at ON check_in_delivery_ledger (delivered_at);
 
 -- Add comments to table and columns
 COMMENT
@@ -155,6 +187,32 @@ COMMENT
 ON COLUMN check_in_notification_schedule.next_execution IS 'Next scheduled execution timestamp with timezone';
 COMMENT
 ON COLUMN check_in_notification_schedule.week_days IS 'JSON array of week days (e.g., ["MONDAY", "TUESDAY"])';
+COMMENT
+ON COLUMN check_in_notification_schedule.lease_owner IS 'Scheduler node currently dispatching the check-in';
+COMMENT
+ON COLUMN check_in_notification_schedule.lease_expires_at IS 'Time after which the lease can be claimed by another node';
+COMMENT
+ON COLUMN check_in_notification_schedule.spread_window_seconds IS 'Window to spread member deliveries over, global default when null';
+COMMENT
+ON COLUMN check_in_notification_schedule.recurrence_rule IS 'RRULE subset overriding frequency and week days when set';
+COMMENT
+ON COLUMN check_in_notification_schedule.catch_up_policy IS 'What to send for executions missed during a downtime, global default when null';
+
+COMMENT
+ON TABLE check_in_notification_outbox IS 'Per member notifications of a check-in history waiting for delivery';
+COMMENT
+ON COLUMN check_in_notification_outbox.member_id IS 'Slack userid of the recipient';
+COMMENT
+ON COLUMN check_in_notification_outbox.status IS 'PENDING, DELIVERED or FAILED after the last attempt';
+COMMENT
+ON COLUMN check_in_notification_outbox.next_attempt_at IS 'Earliest time of the next delivery attempt';
+COMMENT
+ON COLUMN check_in_notification_outbox.lease_owner IS 'Dispatcher node currently delivering the notification';
+
+COMMENT
+ON TABLE check_in_delivery_ledger IS 'Notifications sent to Slack, checked before sending so a delivery is never repeated';
+COMMENT
+ON COLUMN check_in_delivery_ledger.idempotency_key IS 'Name based UUID of the check-in history UUID and member id';
 
 COMMENT
 ON TABLE check_in_history IS 'Stores history of check-in executions';
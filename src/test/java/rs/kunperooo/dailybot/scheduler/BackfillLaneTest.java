@@ -0,0 +1,62 @@
+package rs.kunperooo.dailybot.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BackfillLane Unit Tests")
+class BackfillLaneTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2025, 11, 10, 9, 30, 0, 0, ZoneOffset.UTC);
+
+    private BackfillLane backfillLane;
+
+    @BeforeEach
+    void setUp() {
+        backfillLane = new BackfillLane();
+        ReflectionTestUtils.setField(backfillLane, "deliveriesPerSecond", 2.0);
+    }
+
+    @Test
+    @DisplayName("Should space deliveries by the lane rate starting now")
+    void testReserve_SpacedByRate() {
+        // Act
+        List<ZonedDateTime> result = backfillLane.reserve(3, NOW);
+
+        // Assert
+        assertEquals(List.of(NOW, NOW.plusNanos(500_000_000L), NOW.plusSeconds(1)), result);
+    }
+
+    @Test
+    @DisplayName("Should queue later reservations behind earlier ones")
+    void testReserve_QueuedBehindPreviousReservations() {
+        // Arrange
+        backfillLane.reserve(4, NOW);
+
+        // Act
+        List<ZonedDateTime> result = backfillLane.reserve(1, NOW.plusNanos(100_000_000L));
+
+        // Assert
+        assertEquals(List.of(NOW.plusSeconds(2)), result);
+    }
+
+    @Test
+    @DisplayName("Should deliver everything right away when pacing is off")
+    void testReserve_NoPacing() {
+        // Arrange
+        ReflectionTestUtils.setField(backfillLane, "deliveriesPerSecond", 0.0);
+
+        // Act
+        List<ZonedDateTime> result = backfillLane.reserve(2, NOW);
+
+        // Assert
+        assertEquals(List.of(NOW, NOW), result);
+    }
+}
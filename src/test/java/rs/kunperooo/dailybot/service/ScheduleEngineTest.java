@@ -0,0 +1,59 @@
+package rs.kunperooo.dailybot.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import rs.kunperooo.dailybot.entity.Frequency;
+import rs.kunperooo.dailybot.service.dto.ScheduleDto;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScheduleEngine Unit Tests")
+class ScheduleEngineTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2025, 11, 10, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private final ScheduleEngine scheduleEngine = new ScheduleEngine(Clock.fixed(NOW.toInstant(), ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("Should calculate next execution against the configured clock")
+    void testCalculateNextExecution_UsesClock() {
+        // Arrange
+        ScheduleDto schedule = ScheduleDto.builder()
+                .startDate(LocalDate.of(2025, 11, 3))
+                .time(LocalTime.of(9, 30))
+                .timezone("Europe/Belgrade")
+                .frequency(Frequency.WEEKLY)
+                .days(List.of(DayOfWeek.MONDAY))
+                .build();
+
+        // Act
+        ZonedDateTime result = scheduleEngine.calculateNextExecution(schedule);
+
+        // Assert
+        assertEquals(ZonedDateTime.of(2025, 11, 17, 9, 30, 0, 0, ZoneId.of("Europe/Belgrade")), result);
+    }
+
+    @Test
+    @DisplayName("Should resolve every timezone only once")
+    void testZone_Cached() {
+        // Act & Assert
+        assertSame(scheduleEngine.zone("America/Los_Angeles"), scheduleEngine.zone("America/Los_Angeles"));
+    }
+
+    @Test
+    @DisplayName("Should compile every recurrence rule only once")
+    void testRecurrenceRule_Cached() {
+        // Act & Assert
+        assertSame(scheduleEngine.recurrenceRule("FREQ=MONTHLY;BYDAY=2TU"), scheduleEngine.recurrenceRule("FREQ=MONTHLY;BYDAY=2TU"));
+        assertNull(scheduleEngine.recurrenceRule(null));
+    }
+}
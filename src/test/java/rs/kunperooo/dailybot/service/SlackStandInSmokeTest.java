@@ -0,0 +1,103 @@
+package rs.kunperooo.dailybot.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import rs.kunperooo.dailybot.config.SlackApiConfig;
+import rs.kunperooo.dailybot.service.dto.SlackUserDto;
+import rs.kunperooo.dailybot.service.ratelimit.SlackRateLimiter;
+import rs.kunperooo.dailybot.service.resilience.SlackResilience;
+import rs.kunperooo.dailybot.support.SlackStandInServer;
+import rs.kunperooo.dailybot.utils.NotificationMessages;
+import rs.kunperooo.dailybot.utils.PreparedChatMessage;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        classes = {SlackApiConfig.class, SlackMethodsClients.class, SlackRateLimiter.class, SlackResilience.class,
+                SlackApiService.class, AsyncSlackApiService.class, SlackStandInSmokeTest.MetricsConfig.class},
+        properties = {"slack.bot.token=xoxb-stand-in", "slack.app.users.read.page.size=3"})
+@DisplayName("Slack client against the stand-in server")
+class SlackStandInSmokeTest {
+
+    private static final SlackStandInServer STAND_IN = SlackStandInServer.start(5)
+            .latency(SlackStandInServer.LatencyDistribution.uniform(1, 5));
+
+    @Autowired
+    private SlackApiService slackApiService;
+
+    @Autowired
+    private AsyncSlackApiService asyncSlackApiService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void slackProperties(DynamicPropertyRegistry registry) {
+        registry.add("slack.api.base.url", STAND_IN::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStandIn() {
+        STAND_IN.close();
+    }
+
+    @Test
+    @DisplayName("Should page through users and answer an interaction through the stand-in")
+    void testBlockingCalls() {
+        // Act
+        List<SlackUserDto> users = slackApiService.getActiveUsers();
+        SlackUserDto user = slackApiService.getUser("U00003");
+        asyncSlackApiService.sendActionResponse("U00003", STAND_IN.responseUrl(), "Thanks", UUID.randomUUID(), true).join();
+
+        // Assert
+        assertEquals(5, users.size());
+        assertEquals(2, STAND_IN.calls("users.list"));
+        assertEquals("user3", user.getName());
+        assertEquals(1, STAND_IN.calls(SlackStandInServer.RESPONSE_URL));
+    }
+
+    @Test
+    @DisplayName("Should deliver a whole fan-out although Slack rate limits some of the posts")
+    void testFanOut_RateLimited() {
+        // Arrange
+        STAND_IN.rateLimitEvery(4, 0);
+        UUID historyUuid = UUID.randomUUID();
+        PreparedChatMessage message = slackApiService.prepareChatPostMessage(
+                NotificationMessages.buildBlocks("Standup", historyUuid), NotificationMessages.buildMetadata(historyUuid));
+        List<String> channels = IntStream.range(0, 12).mapToObj(i -> "D" + i).toList();
+
+        // Act
+        CompletableFuture.allOf(channels.stream()
+                        .map(channel -> asyncSlackApiService.sendChatPostMessage(channel, message))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        STAND_IN.rateLimitEvery(0, 0);
+
+        // Assert
+        assertTrue(STAND_IN.postedChannels().containsAll(channels));
+        assertTrue(STAND_IN.calls("chat.postMessage") > channels.size());
+        assertTrue(meterRegistry.get("slack.api.rate.limited").counter().count() > 0);
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package rs.kunperooo.dailybot.service.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenBucket Unit Tests")
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should release calls over the burst at the bucket rate")
+    void testReserve_QueuedAtRate() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(60, 2, 0);
+
+        // Act
+        long first = bucket.reserve(0);
+        long second = bucket.reserve(0);
+        long third = bucket.reserve(0);
+        long fourth = bucket.reserve(0);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(SECOND, third);
+        assertEquals(2 * SECOND, fourth);
+        assertEquals(-2, bucket.available(0), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should hand out no tokens before the Retry-After time once parked")
+    void testPark_ReservesAfterRetryAfter() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(60, 1, 0);
+        bucket.reserve(0);
+        bucket.reserve(0);
+
+        // Act
+        bucket.park(0, 30 * SECOND);
+        long result = bucket.reserve(SECOND);
+
+        // Assert
+        assertTrue(bucket.isParked(SECOND));
+        assertFalse(bucket.isParked(30 * SECOND));
+        assertEquals(30 * SECOND, result);
+        assertEquals(31 * SECOND, bucket.reserve(SECOND));
+    }
+}
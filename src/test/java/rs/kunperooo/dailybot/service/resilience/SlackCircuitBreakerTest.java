@@ -0,0 +1,48 @@
+package rs.kunperooo.dailybot.service.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SlackCircuitBreaker Unit Tests")
+class SlackCircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 30_000_000_000L;
+
+    @Test
+    @DisplayName("Should reject calls once the failure threshold is reached")
+    void testOnFailure_OpensAtThreshold() {
+        // Arrange
+        SlackCircuitBreaker circuitBreaker = new SlackCircuitBreaker(2, OPEN_NANOS);
+
+        // Act
+        circuitBreaker.onFailure(0);
+        boolean afterFirstFailure = circuitBreaker.tryAcquire(0);
+        circuitBreaker.onFailure(0);
+
+        // Assert
+        assertTrue(afterFirstFailure);
+        assertEquals(SlackCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire(OPEN_NANOS - 1));
+    }
+
+    @Test
+    @DisplayName("Should let a single trial call through after the open duration and close on its success")
+    void testTryAcquire_HalfOpenTrial() {
+        // Arrange
+        SlackCircuitBreaker circuitBreaker = new SlackCircuitBreaker(1, OPEN_NANOS);
+        circuitBreaker.onFailure(0);
+
+        // Act
+        boolean trial = circuitBreaker.tryAcquire(OPEN_NANOS);
+        boolean concurrent = circuitBreaker.tryAcquire(OPEN_NANOS);
+        circuitBreaker.onSuccess();
+
+        // Assert
+        assertTrue(trial);
+        assertFalse(concurrent);
+        assertEquals(SlackCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire(OPEN_NANOS));
+    }
+}
@@ -0,0 +1,316 @@
+package rs.kunperooo.dailybot.support;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded stand-in for the Slack endpoints the bot calls: chat.postMessage, views.open, users.list with
+ * cursors, users.info, auth.test and response URL posts. Point slack.api.base.url at {@link #baseUrl()} to
+ * measure the Slack client offline. Latency, rate limited responses with Retry-After and server errors can be
+ * injected, every call is counted per method and posted channels are recorded.
+ */
+public class SlackStandInServer implements AutoCloseable {
+    public static final String RESPONSE_URL = "response_url";
+
+    private static final String API_PATH = "/api/";
+    private static final String RESPONSE_PATH = "/response/";
+
+    private final Gson gson = new Gson();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final int users;
+
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final Queue<String> postedChannels = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger rateLimitCounter = new AtomicInteger();
+    private final AtomicLong timestamps = new AtomicLong();
+
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+    private volatile int rateLimitEvery;
+    private volatile int retryAfterSeconds;
+    private volatile double errorRate;
+
+    private SlackStandInServer(int users) throws IOException {
+        this.users = users;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts on a free port
+     *
+     * @param users size of the workspace returned by users.list, users are named U00000, U00001, ...
+     */
+    public static SlackStandInServer start(int users) {
+        try {
+            SlackStandInServer standIn = new SlackStandInServer(users);
+            standIn.server.start();
+            return standIn;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return Web API endpoint prefix for slack.api.base.url
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + API_PATH;
+    }
+
+    /**
+     * @return a new response URL, as carried by interaction payloads
+     */
+    public String responseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + RESPONSE_PATH + UUID.randomUUID();
+    }
+
+    public SlackStandInServer latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Answers every n-th Web API call with 429 and the given Retry-After, 0 turns it off
+     */
+    public SlackStandInServer rateLimitEvery(int n, int retryAfterSeconds) {
+        this.rateLimitEvery = n;
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    /**
+     * Share of calls answered with 500
+     */
+    public SlackStandInServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * @param method Web API method or {@link #RESPONSE_URL}
+     * @return calls received, including the rate limited and failed ones
+     */
+    public int calls(String method) {
+        AtomicInteger count = calls.get(method);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * @return channels of successfully posted messages, in arrival order
+     */
+    public List<String> postedChannels() {
+        return List.copyOf(postedChannels);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            boolean api = path.startsWith(API_PATH);
+            String method = api ? path.substring(API_PATH.length()) : RESPONSE_URL;
+            calls.computeIfAbsent(method, m -> new AtomicInteger()).incrementAndGet();
+            Map<String, String> params = params(exchange);
+
+            sleep(latency.nextMillis());
+            if (api && rateLimitEvery > 0 && rateLimitCounter.incrementAndGet() % rateLimitEvery == 0) {
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfterSeconds));
+                respond(exchange, 429, "{\"ok\":false,\"error\":\"ratelimited\"}");
+                return;
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                respond(exchange, 500, "{\"ok\":false,\"error\":\"internal_error\"}");
+                return;
+            }
+            if (!api) {
+                respond(exchange, 200, "ok");
+                return;
+            }
+            respond(exchange, 200, gson.toJson(answer(method, params)));
+        }
+    }
+
+    private JsonObject answer(String method, Map<String, String> params) {
+        JsonObject response = new JsonObject();
+        switch (method) {
+            case "auth.test" -> {
+                response.addProperty("team_id", "T0STANDIN");
+                response.addProperty("user_id", "UBOT");
+                response.addProperty("bot_id", "BBOT");
+            }
+            case "chat.postMessage" -> {
+                String channel = params.get("channel");
+                if (channel == null || channel.isEmpty()) {
+                    return error("channel_not_found");
+                }
+                postedChannels.add(channel);
+                response.addProperty("channel", channel);
+                response.addProperty("ts", System.currentTimeMillis() / 1000 + "." + timestamps.incrementAndGet());
+            }
+            case "views.open" -> {
+                if (params.get("trigger_id") == null) {
+                    return error("invalid_trigger_id");
+                }
+                JsonObject view = new JsonObject();
+                view.addProperty("id", "V" + timestamps.incrementAndGet());
+                response.add("view", view);
+            }
+            case "users.info" -> {
+                int index = userIndex(params.get("user"));
+                if (index < 0) {
+                    return error("user_not_found");
+                }
+                response.add("user", user(index));
+            }
+            case "users.list" -> {
+                int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : 100;
+                String cursor = params.get("cursor");
+                int from = cursor != null && !cursor.isEmpty() ? Integer.parseInt(cursor) : 0;
+                int to = Math.min(users, from + Math.max(1, limit));
+                JsonArray members = new JsonArray();
+                for (int i = from; i < to; i++) {
+                    members.add(user(i));
+                }
+                JsonObject metadata = new JsonObject();
+                metadata.addProperty("next_cursor", to < users ? String.valueOf(to) : "");
+                response.add("members", members);
+                response.add("response_metadata", metadata);
+            }
+            default -> {
+                return error("unknown_method");
+            }
+        }
+        response.addProperty("ok", true);
+        return response;
+    }
+
+    private JsonObject user(int index) {
+        String id = String.format("U%05d", index);
+        JsonObject profile = new JsonObject();
+        profile.addProperty("real_name", "User " + index);
+        profile.addProperty("email", "user" + index + "@example.com");
+        JsonObject user = new JsonObject();
+        user.addProperty("id", id);
+        user.addProperty("name", "user" + index);
+        user.addProperty("real_name", "User " + index);
+        user.addProperty("tz", "Europe/Belgrade");
+        user.addProperty("deleted", false);
+        user.addProperty("is_bot", false);
+        user.add("profile", profile);
+        return user;
+    }
+
+    private int userIndex(String id) {
+        try {
+            int index = id != null && id.startsWith("U") ? Integer.parseInt(id.substring(1)) : -1;
+            return index < users ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static JsonObject error(String error) {
+        JsonObject response = new JsonObject();
+        response.addProperty("ok", false);
+        response.addProperty("error", error);
+        return response;
+    }
+
+    /**
+     * Form fields, or the top level fields of a JSON body
+     */
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, String> params = new HashMap<>();
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith("application/json")) {
+            JsonParser.parseString(body).getAsJsonObject().entrySet().stream()
+                    .filter(e -> e.getValue().isJsonPrimitive())
+                    .forEach(e -> params.put(e.getKey(), e.getValue().getAsString()));
+            return params;
+        }
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", body.startsWith("{") ? "application/json; charset=utf-8" : "text/plain");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Response latency of the stand-in, drawn per call
+     */
+    @FunctionalInterface
+    public interface LatencyDistribution {
+        long nextMillis();
+
+        static LatencyDistribution none() {
+            return () -> 0;
+        }
+
+        static LatencyDistribution fixed(long millis) {
+            return () -> millis;
+        }
+
+        static LatencyDistribution uniform(long minMillis, long maxMillis) {
+            return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+        }
+
+        /**
+         * Long tailed latency around a median, sigma 0.5 puts the 99th percentile at about 3.2 times the median
+         */
+        static LatencyDistribution logNormal(long medianMillis, double sigma) {
+            return () -> Math.round(medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+}
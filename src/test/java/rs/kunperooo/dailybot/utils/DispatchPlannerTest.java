@@ -0,0 +1,62 @@
+package rs.kunperooo.dailybot.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DispatchPlanner Unit Tests")
+class DispatchPlannerTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2025, 11, 10, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    @DisplayName("Should deliver to everyone at start when spreading is disabled")
+    void testPlanDeliveries_NoWindow() {
+        // Act
+        List<ZonedDateTime> result = DispatchPlanner.planDeliveries(UUID.randomUUID(), START, 3, Duration.ZERO);
+
+        // Assert
+        assertEquals(List.of(START, START, START), result);
+    }
+
+    @Test
+    @DisplayName("Should keep deliveries inside the window and in recipients order")
+    void testPlanDeliveries_OrderedInsideWindow() {
+        // Arrange
+        Duration window = Duration.ofSeconds(120);
+
+        // Act
+        List<ZonedDateTime> result = DispatchPlanner.planDeliveries(UUID.randomUUID(), START, 300, window);
+
+        // Assert
+        assertEquals(300, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertFalse(result.get(i).isBefore(START));
+            assertFalse(result.get(i).isAfter(START.plus(window)));
+            if (i > 0) {
+                assertTrue(result.get(i).isAfter(result.get(i - 1)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should plan the same deliveries for the same check-in")
+    void testPlanDeliveries_Deterministic() {
+        // Arrange
+        UUID checkInUuid = UUID.fromString("7f1c6c8e-2f5a-4c1e-9a57-3b8a2f0d4e11");
+
+        // Act
+        List<ZonedDateTime> first = DispatchPlanner.planDeliveries(checkInUuid, START, 10, Duration.ofMinutes(1));
+        List<ZonedDateTime> second = DispatchPlanner.planDeliveries(checkInUuid, START, 10, Duration.ofMinutes(1));
+
+        // Assert
+        assertEquals(first, second);
+    }
+}
@@ -0,0 +1,78 @@
+package rs.kunperooo.dailybot.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FairDispatchQueue Unit Tests")
+class FairDispatchQueueTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2025, 11, 10, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private record Item(String owner, ZonedDateTime dueAt) {
+    }
+
+    @Test
+    @DisplayName("Should not let a busy owner starve other owners")
+    void testPoll_SharesBatchBetweenOwners() {
+        // Arrange
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new Item("busy", NOW.minusMinutes(10).plusSeconds(i)));
+        }
+        items.add(new Item("quiet", NOW.minusMinutes(1)));
+
+        // Act
+        List<Item> batch = new FairDispatchQueue<>(Item::owner, Item::dueAt, Map.of())
+                .addAll(items)
+                .poll(4);
+
+        // Assert
+        assertEquals(4, batch.size());
+        assertEquals(1, batch.stream().filter(i -> i.owner().equals("quiet")).count());
+    }
+
+    @Test
+    @DisplayName("Should serve the most late owner first and keep lateness order within an owner")
+    void testPoll_LatenessOrder() {
+        // Arrange
+        Item a1 = new Item("a", NOW.minusMinutes(5));
+        Item a2 = new Item("a", NOW.minusMinutes(1));
+        Item b1 = new Item("b", NOW.minusMinutes(9));
+
+        // Act
+        List<Item> batch = new FairDispatchQueue<>(Item::owner, Item::dueAt, Map.of())
+                .addAll(List.of(a2, a1, b1))
+                .pollAll();
+
+        // Assert
+        assertEquals(List.of(b1, a1, a2), batch);
+    }
+
+    @Test
+    @DisplayName("Should give weighted owners a bigger share of every round")
+    void testPoll_Weights() {
+        // Arrange
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(new Item("heavy", NOW.minusSeconds(i)));
+            items.add(new Item("light", NOW.minusSeconds(i)));
+        }
+
+        // Act
+        List<Item> batch = new FairDispatchQueue<>(Item::owner, Item::dueAt, Map.of("heavy", 3))
+                .addAll(items)
+                .poll(8);
+
+        // Assert
+        assertEquals(6, batch.stream().filter(i -> i.owner().equals("heavy")).count());
+        assertEquals(2, batch.stream().filter(i -> i.owner().equals("light")).count());
+    }
+}
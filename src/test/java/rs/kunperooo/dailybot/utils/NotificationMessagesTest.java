@@ -0,0 +1,62 @@
+package rs.kunperooo.dailybot.utils;
+
+import com.slack.api.app_backend.interactive_components.payload.BlockActionPayload;
+import com.slack.api.model.Message;
+import com.slack.api.model.block.ActionsBlock;
+import com.slack.api.model.block.LayoutBlock;
+import com.slack.api.model.block.element.ButtonElement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import rs.kunperooo.dailybot.service.dto.OutboxMessageDto;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NotificationMessages Unit Tests")
+class NotificationMessagesTest {
+
+    @Test
+    @DisplayName("Should add a start button with its history UUID per coalesced check-in")
+    void testBuildCoalescedBlocks_ButtonPerCheckIn() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<OutboxMessageDto> messages = List.of(
+                OutboxMessageDto.builder().historyUuid(first).memberId("U1").introMessage("Standup").build(),
+                OutboxMessageDto.builder().historyUuid(second).memberId("U1").introMessage("Retro").build());
+
+        // Act
+        List<LayoutBlock> result = NotificationMessages.buildCoalescedBlocks(messages);
+
+        // Assert
+        List<String> buttonValues = result.stream()
+                .filter(ActionsBlock.class::isInstance)
+                .map(b -> ((ButtonElement) ((ActionsBlock) b).getElements().get(0)).getValue())
+                .toList();
+        assertEquals(List.of(first.toString(), second.toString()), buttonValues);
+        assertEquals(NotificationMessages.COALESCED_EVENT_TYPE, NotificationMessages.buildCoalescedMetadata(messages).getEventType());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the metadata history UUID for buttons without one")
+    void testHistoryUuid_FallsBackToMetadata() {
+        // Arrange
+        UUID historyUuid = UUID.randomUUID();
+        BlockActionPayload.Action action = new BlockActionPayload.Action();
+        action.setValue("start");
+        Message message = new Message();
+        message.setMetadata(NotificationMessages.buildMetadata(historyUuid));
+        BlockActionPayload payload = new BlockActionPayload();
+        payload.setActions(List.of(action));
+        payload.setMessage(message);
+
+        // Act
+        String result = NotificationMessages.historyUuid(payload);
+
+        // Assert
+        assertEquals(historyUuid.toString(), result);
+        assertFalse(NotificationMessages.isCoalesced(payload));
+    }
+}
@@ -0,0 +1,50 @@
+package rs.kunperooo.dailybot.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.slack.api.util.json.GsonFactory;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PreparedChatMessage Unit Tests")
+class PreparedChatMessageTest {
+
+    private final Gson gson = GsonFactory.createSnakeCase();
+
+    @Test
+    @DisplayName("Should write the channel in front of the shared blocks and metadata")
+    void testRequestBody_PerChannel() throws Exception {
+        // Arrange
+        UUID historyUuid = UUID.randomUUID();
+        PreparedChatMessage message = PreparedChatMessage.of(gson, NotificationMessages.buildBlocks("Good *morning*", historyUuid),
+                NotificationMessages.buildMetadata(historyUuid));
+
+        // Act
+        RequestBody first = message.requestBody("U0001");
+        RequestBody second = message.requestBody("U0002");
+
+        // Assert
+        JsonObject firstJson = parse(first);
+        JsonObject secondJson = parse(second);
+        assertEquals("U0001", firstJson.get("channel").getAsString());
+        assertEquals("U0002", secondJson.get("channel").getAsString());
+        assertEquals(firstJson.get("blocks"), secondJson.get("blocks"));
+        assertEquals(gson.toJsonTree(NotificationMessages.buildBlocks("Good *morning*", historyUuid)), firstJson.get("blocks"));
+        assertEquals(historyUuid.toString(), firstJson.getAsJsonObject("metadata").getAsJsonObject("event_payload")
+                .get(NotificationMessages.HISTORY_UUID_KEY).getAsString());
+    }
+
+    private static JsonObject parse(RequestBody body) throws Exception {
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        assertEquals(body.contentLength(), buffer.size());
+        return JsonParser.parseString(buffer.readUtf8()).getAsJsonObject();
+    }
+}
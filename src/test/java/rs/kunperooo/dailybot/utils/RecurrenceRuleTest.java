@@ -0,0 +1,117 @@
+package rs.kunperooo.dailybot.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import rs.kunperooo.dailybot.service.dto.ScheduleDto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecurrenceRule Unit Tests")
+class RecurrenceRuleTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 11, 3);
+
+    @Test
+    @DisplayName("Should resolve nth and last week day of month")
+    void testNextDate_MonthlyOrdinals() {
+        // Arrange
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=2TU,-1FR");
+
+        // Act
+        List<LocalDate> result = dates(rule, START, 4);
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2025, 11, 11), LocalDate.of(2025, 11, 28),
+                LocalDate.of(2025, 12, 9), LocalDate.of(2025, 12, 26)), result);
+    }
+
+    @Test
+    @DisplayName("Should skip months without the requested month day")
+    void testNextDate_MonthDays() {
+        // Arrange
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=31,-1");
+
+        // Act
+        List<LocalDate> result = dates(rule, LocalDate.of(2026, 1, 1), 3);
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 31)), result);
+    }
+
+    @Test
+    @DisplayName("Should apply interval, count and excluded dates")
+    void testNextDate_IntervalCountAndExdate() {
+        // Arrange
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;COUNT=4\nEXDATE:20251105");
+
+        // Act
+        List<LocalDate> result = dates(rule, START, 10);
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2025, 11, 3), LocalDate.of(2025, 11, 17), LocalDate.of(2025, 11, 19)), result);
+    }
+
+    @Test
+    @DisplayName("Should stop after UNTIL")
+    void testNextDate_Until() {
+        // Arrange
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;INTERVAL=3;UNTIL=20251110T000000Z");
+
+        // Act
+        List<LocalDate> result = dates(rule, START, 10);
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2025, 11, 3), LocalDate.of(2025, 11, 6), LocalDate.of(2025, 11, 9)), result);
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported or malformed rules")
+    void testParse_Invalid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("INTERVAL=2"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=YEARLY"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=2TU"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=2;UNTIL=20251231"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=32"));
+    }
+
+    @Test
+    @DisplayName("Should take precedence over week days in schedule calculation")
+    void testCalculateNextExecution_UsesRule() {
+        // Arrange
+        ScheduleDto schedule = ScheduleDto.builder()
+                .startDate(START)
+                .time(LocalTime.of(9, 0))
+                .timezone("UTC")
+                .recurrenceRule(RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=1MO"))
+                .build();
+
+        // Act
+        ZonedDateTime result = ScheduleUtils.calculateNextExecution(schedule, ZonedDateTime.of(2025, 11, 3, 10, 0, 0, 0, ZoneOffset.UTC));
+
+        // Assert
+        assertEquals(ZonedDateTime.of(2025, 12, 1, 9, 0, 0, 0, ZoneId.of("UTC")), result);
+    }
+
+    private static List<LocalDate> dates(RecurrenceRule rule, LocalDate start, int limit) {
+        List<LocalDate> dates = new ArrayList<>();
+        long day = start.toEpochDay();
+        while (dates.size() < limit) {
+            day = rule.nextDate(day, start.toEpochDay());
+            if (day == RecurrenceRule.NOT_FOUND) {
+                break;
+            }
+            dates.add(LocalDate.ofEpochDay(day));
+            day++;
+        }
+        return dates;
+    }
+}
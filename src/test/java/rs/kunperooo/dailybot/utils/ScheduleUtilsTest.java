@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import rs.kunperooo.dailybot.entity.Frequency;
 import rs.kunperooo.dailybot.service.dto.ScheduleDto;
 
+import java.time.Clock;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -123,9 +124,10 @@ class ScheduleUtilsTest {
     void testCalculateNextExecution_StartDateToday_TimeInFuture() {
         // Arrange
         LocalDate today = LocalDate.of(2025, 11, 6);
-        LocalTime futureTime = LocalTime.now().plusHours(2);
+        LocalTime futureTime = LocalTime.of(12, 0);
         ZoneId timezone = ZoneId.systemDefault();
         DayOfWeek todayDayOfWeek = today.getDayOfWeek();
+        Clock clock = Clock.fixed(ZonedDateTime.of(LocalDate.of(2025, 11, 13), LocalTime.of(10, 0), timezone).toInstant(), timezone);
 
         ScheduleDto schedule = ScheduleDto.builder()
                 .startDate(today)
@@ -135,7 +137,7 @@ class ScheduleUtilsTest {
                 .build();
 
         // Act
-        ZonedDateTime result = ScheduleUtils.calculateNextExecution(schedule);
+        ZonedDateTime result = ScheduleUtils.calculateNextExecution(schedule, ZonedDateTime.now(clock));
 
         // Assert
         assertNotNull(result);
@@ -1211,4 +1213,42 @@ class ScheduleUtilsTest {
         assertTrue(result.toLocalDate().isAfter(LocalDate.now().minusDays(1)));
         assertEquals(executionTime, result.toLocalTime());
     }
+
+    @Test
+    @DisplayName("Should list upcoming WEEKLY occurrences in order")
+    void testOccurrences_WeeklyMultipleDays() {
+        // Arrange
+        ZonedDateTime now = ZonedDateTime.of(2025, 11, 5, 12, 0, 0, 0, ZoneId.of("UTC"));
+        ScheduleDto schedule = ScheduleDto.builder()
+                .startDate(LocalDate.of(2025, 11, 3))
+                .time(LocalTime.of(9, 0))
+                .timezone("UTC")
+                .frequency(Frequency.WEEKLY)
+                .days(List.of(DayOfWeek.FRIDAY, DayOfWeek.MONDAY))
+                .build();
+
+        // Act
+        List<ZonedDateTime> result = ScheduleUtils.occurrences(schedule, now).limit(4).toList();
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2025, 11, 7), LocalDate.of(2025, 11, 10),
+                        LocalDate.of(2025, 11, 14), LocalDate.of(2025, 11, 17)),
+                result.stream().map(ZonedDateTime::toLocalDate).toList());
+        assertTrue(result.stream().allMatch(execution -> execution.toLocalTime().equals(LocalTime.of(9, 0))));
+    }
+
+    @Test
+    @DisplayName("Should return no occurrences when next execution cannot be calculated")
+    void testOccurrences_NoWeekDays() {
+        // Arrange
+        ScheduleDto schedule = ScheduleDto.builder()
+                .startDate(LocalDate.of(2025, 11, 3))
+                .time(LocalTime.of(9, 0))
+                .timezone("UTC")
+                .days(Collections.emptyList())
+                .build();
+
+        // Act & Assert
+        assertEquals(0, ScheduleUtils.occurrences(schedule, ZonedDateTime.now()).count());
+    }
 }
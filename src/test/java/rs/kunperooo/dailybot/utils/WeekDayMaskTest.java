@@ -0,0 +1,47 @@
+package rs.kunperooo.dailybot.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WeekDayMask Unit Tests")
+class WeekDayMaskTest {
+
+    @Test
+    @DisplayName("Should count days to the next selected day wrapping over Sunday")
+    void testDaysUntilNext_WrapsOverWeekEnd() {
+        // Arrange
+        int mask = WeekDayMask.of(List.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY));
+
+        // Act & Assert
+        assertEquals(0, WeekDayMask.daysUntilNext(mask, DayOfWeek.MONDAY.ordinal()));
+        assertEquals(1, WeekDayMask.daysUntilNext(mask, DayOfWeek.TUESDAY.ordinal()));
+        assertEquals(4, WeekDayMask.daysUntilNext(mask, DayOfWeek.THURSDAY.ordinal()));
+        assertEquals(1, WeekDayMask.daysUntilNext(mask, DayOfWeek.SUNDAY.ordinal()));
+    }
+
+    @Test
+    @DisplayName("Should return -1 for an empty mask")
+    void testDaysUntilNext_EmptyMask() {
+        // Act & Assert
+        assertEquals(-1, WeekDayMask.daysUntilNext(WeekDayMask.EMPTY, 3));
+    }
+
+    @Test
+    @DisplayName("Should resolve day of week from epoch day")
+    void testDayIndex_MatchesLocalDate() {
+        // Arrange
+        LocalDate date = LocalDate.of(1969, 12, 1);
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            LocalDate day = date.plusDays(i);
+            assertEquals(day.getDayOfWeek().ordinal(), WeekDayMask.dayIndex(day.toEpochDay()));
+        }
+    }
+}